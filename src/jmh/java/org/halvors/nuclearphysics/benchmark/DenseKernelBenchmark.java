@@ -0,0 +1,77 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import org.halvors.nuclearphysics.common.science.grid.thermal.DenseThermalKernel;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ExplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSnapshot;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Solving a 64x32x64 block snapshot with the given fraction of blocks holding a temperature, cell by cell and with
+ * the dense kernel for every section holding at least minDenseCells of them. Used to find the crossover on a machine
+ * before setting denseSectionCells in the configuration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DenseKernelBenchmark {
+    @Param({"0.05", "0.25", "0.5", "0.75", "1.0"})
+    public double density;
+
+    @Param({"0", "1024", "3584"})
+    public int minDenseCells;
+
+    private IThermalSolver sparseSolver;
+    private IThermalSolver denseSolver;
+    private ThermalSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(0);
+        final long[] positions = new long[64 * 32 * 64];
+        int count = 0;
+
+        for (int x = -32; x < 32; x++) {
+            for (int y = 0; y < 32; y++) {
+                for (int z = -32; z < 32; z++) {
+                    if (random.nextDouble() < density) {
+                        positions[count++] = ThermalStorage.pack(x, y, z);
+                    }
+                }
+            }
+        }
+
+        final long[] hot = Arrays.copyOf(positions, count);
+        Arrays.sort(hot);
+
+        // The snapshot also holds the neighbours of every hot block, at ambient temperature.
+        snapshot = new ThermalSnapshot(hot);
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            final boolean active = Arrays.binarySearch(hot, snapshot.getPosition(i)) >= 0;
+
+            snapshot.setCell(i, active ? 300 + random.nextDouble() * 2000 : 300, 300, random.nextDouble() * 0.01, 0.5 + random.nextDouble(), active ? -random.nextDouble() : 0, active);
+        }
+
+        sparseSolver = new ExplicitThermalSolver(DenseThermalKernel.DISABLED);
+        denseSolver = new ExplicitThermalSolver(minDenseCells);
+    }
+
+    @Benchmark
+    public double[] sparse() {
+        return sparseSolver.solve(snapshot);
+    }
+
+    @Benchmark
+    public double[] dense() {
+        return denseSolver.solve(snapshot);
+    }
+}
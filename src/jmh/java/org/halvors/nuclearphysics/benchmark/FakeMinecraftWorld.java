@@ -0,0 +1,86 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.ISaveHandler;
+import net.minecraft.world.storage.WorldInfo;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * A flat world of loaded chunks without a server, so explosions can be benchmarked without launching Minecraft. Only the
+ * blocks are registered, the ground is stone with a layer of dirt on top like a reactor usually stands on.
+ */
+public class FakeMinecraftWorld extends World {
+    public static final int GROUND = 63;
+
+    static {
+        Bootstrap.register();
+    }
+
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+
+    public FakeMinecraftWorld() {
+        super((ISaveHandler) null, new WorldInfo(new NBTTagCompound()), new WorldProviderSurface(), new Profiler(), false);
+
+        chunkProvider = createChunkProvider();
+    }
+
+    @Override
+    protected IChunkProvider createChunkProvider() {
+        return new IChunkProvider() {
+            @Nullable
+            @Override
+            public Chunk getLoadedChunk(final int x, final int z) {
+                return provideChunk(x, z);
+            }
+
+            @Override
+            public Chunk provideChunk(final int x, final int z) {
+                return chunks.computeIfAbsent(ChunkPos.asLong(x, z), key -> createChunk(x, z));
+            }
+
+            @Override
+            public boolean unloadQueuedChunks() {
+                return false;
+            }
+
+            @Override
+            public String makeString() {
+                return "FakeMinecraftWorld";
+            }
+        };
+    }
+
+    @Override
+    protected boolean isChunkLoaded(final int x, final int z, final boolean allowEmpty) {
+        return true;
+    }
+
+    private Chunk createChunk(final int chunkX, final int chunkZ) {
+        final ChunkPrimer primer = new ChunkPrimer();
+        final IBlockState stone = Blocks.STONE.getDefaultState();
+        final IBlockState dirt = Blocks.DIRT.getDefaultState();
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y <= GROUND; y++) {
+                    primer.setBlockState(x, y, z, y > GROUND - 3 ? dirt : stone);
+                }
+            }
+        }
+
+        return new Chunk(this, primer, chunkX, chunkZ);
+    }
+}
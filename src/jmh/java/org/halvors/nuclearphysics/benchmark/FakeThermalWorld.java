@@ -0,0 +1,122 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import org.halvors.nuclearphysics.api.thermal.ThermalProperties;
+import org.halvors.nuclearphysics.api.thermal.ThermalRegistry;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalWorld;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSimulation;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSnapshot;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
+import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+
+/*
+ * A stand-in for a world with a reactor in it, so the thermal grid can be benchmarked without launching Minecraft.
+ *
+ * The reactor is a cube of hot solid cells surrounded by water, with the default properties from the ThermalRegistry.
+ * Only the blocks are faked, everything else is the same ThermalSimulation and ThermalStorage the game runs.
+ */
+public class FakeThermalWorld implements IThermalWorld {
+    private final ThermalStorage storage = new ThermalStorage();
+    private final ThermalSimulation simulation = new ThermalSimulation(this, storage, 0.01, 20);
+    private final double ambientTemperature = ThermalPhysics.getTemperatureForBiome(0.8, true);
+    private final long[] core;
+    private final int size;
+    private final double coreTemperature;
+
+    /**
+     * @param hotCells - the number of cells in the reactor core, rounded to a cube.
+     * @param coreTemperature - the temperature the core is kept at.
+     */
+    public FakeThermalWorld(final int hotCells, final double coreTemperature) {
+        this.size = Math.max(1, (int) Math.round(Math.cbrt(hotCells)));
+        this.core = new long[size * size * size];
+        this.coreTemperature = coreTemperature;
+
+        int count = 0;
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    core[count++] = ThermalStorage.pack(x, 64 + y, z);
+                }
+            }
+        }
+
+        heatCore();
+    }
+
+    public ThermalSimulation getSimulation() {
+        return simulation;
+    }
+
+    public long[] getCore() {
+        return core;
+    }
+
+    private ThermalProperties getProperties(final long pos) {
+        return isCore(pos) ? ThermalRegistry.SOLID : ThermalRegistry.NON_SOLID;
+    }
+
+    private boolean isCore(final long pos) {
+        final int x = ThermalStorage.getX(pos);
+        final int y = ThermalStorage.getY(pos) - 64;
+        final int z = ThermalStorage.getZ(pos);
+
+        return x >= 0 && x < size && y >= 0 && y < size && z >= 0 && z < size;
+    }
+
+    /**
+     * Sets the core back to its temperature, like reactor cells heating up every tick.
+     */
+    public void heatCore() {
+        for (final long pos : core) {
+            storage.set(pos, coreTemperature);
+            storage.wake(pos);
+        }
+    }
+
+    public double getTemperature(final long pos) {
+        return simulation.getTemperature(pos);
+    }
+
+    public void addTemperature(final long pos, final double deltaTemperature) {
+        simulation.addTemperature(pos, deltaTemperature);
+    }
+
+    public int stepSequential() {
+        return simulation.stepSequential();
+    }
+
+    public int step(final IThermalSolver solver) {
+        return simulation.step(solver, 1);
+    }
+
+    public ThermalSnapshot capture() {
+        return simulation.capture(1);
+    }
+
+    @Override
+    public boolean isLoaded(final long pos) {
+        return true;
+    }
+
+    @Override
+    public double getAmbientTemperature(final long pos) {
+        return ambientTemperature;
+    }
+
+    @Override
+    public double getConductivity(final long pos) {
+        return getProperties(pos).getConductivity();
+    }
+
+    @Override
+    public double getHeatCapacity(final long pos) {
+        return getProperties(pos).getHeatCapacity();
+    }
+
+    @Override
+    public double getHeatLoss(final long pos, final double temperature, final double ambientTemperature, final double deltaTime) {
+        return getProperties(pos).getHeatLoss(temperature);
+    }
+}
@@ -0,0 +1,112 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import net.minecraft.util.math.BlockPos;
+import org.halvors.nuclearphysics.common.effect.explosion.ExplosionBase;
+import org.halvors.nuclearphysics.common.effect.explosion.ExplosionSnapshot;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ExplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSimulation;
+import org.halvors.nuclearphysics.common.science.reactor.ReactorCellModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Runs fission reactors headless for a number of in-game minutes, the reactor cells heat the thermal simulation the
+ * same way TileReactorCell does every tick. Explosion compares the meltdown explosion that ends them, captured for the
+ * ExplosionEngine against computing it on the server thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ReactorSimulationBenchmark {
+    private static final int TICKS_PER_MINUTE = 20 * 60;
+
+    // Roughly what a fuel rod releases per tick.
+    private static final long ENERGY_PER_TICK = 2_000_000;
+
+    @Param({"27", "1000"})
+    public int reactorCells;
+
+    @Param({"1"})
+    public int minutes;
+
+    private FakeThermalWorld world;
+    private IThermalSolver solver;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        world = new FakeThermalWorld(reactorCells, 1000);
+        solver = new ExplicitThermalSolver();
+
+        final ThermalSimulation simulation = world.getSimulation();
+
+        for (final long pos : world.getCore()) {
+            final ReactorCellModel model = new ReactorCellModel();
+
+            simulation.addHeatSource(heatedSimulation -> {
+                model.beginTick();
+                model.heat(ENERGY_PER_TICK);
+                heatedSimulation.addTemperature(pos, model.getDeltaTemperature(0));
+
+                final boolean meltdown = model.updateMeltdown(heatedSimulation.getTemperature(pos));
+                model.endTick();
+
+                // A melted down cell is gone.
+                return !meltdown;
+            });
+        }
+    }
+
+    @Benchmark
+    public int simulate() {
+        final ThermalSimulation simulation = world.getSimulation();
+        int cells = 0;
+
+        for (int tick = 0; tick < minutes * TICKS_PER_MINUTE; tick++) {
+            simulation.emitHeat();
+            cells += simulation.step(solver, 1);
+        }
+
+        return cells;
+    }
+
+    @State(Scope.Thread)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    public static class Explosion {
+        // The size TileReactorCell melts down with.
+        private static final float SIZE = 9;
+
+        private FakeMinecraftWorld world;
+        private BlockPos pos;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            world = new FakeMinecraftWorld();
+            pos = new BlockPos(0, FakeMinecraftWorld.GROUND + 1, 0);
+        }
+
+        @Benchmark
+        public ExplosionSnapshot capture() {
+            final ExplosionBase explosion = new ExplosionBase(world, null, pos, SIZE, false, true);
+
+            return ExplosionSnapshot.capture(world, explosion, null, pos.getX(), pos.getY(), pos.getZ(), SIZE);
+        }
+
+        @Benchmark
+        public List<BlockPos> doExplosionA() {
+            final ExplosionBase explosion = new ExplosionBase(world, null, pos, SIZE, false, true);
+            explosion.doExplosionA();
+
+            return explosion.getAffectedBlockPositions();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThermalPhysicsBenchmark {
+    public double biomeTemperature = 0.8;
+    public boolean daytime = true;
+    public int volume = 1000;
+
+    @Benchmark
+    public double getTemperatureForBiome() {
+        return ThermalPhysics.getTemperatureForBiome(biomeTemperature, daytime);
+    }
+
+    @Benchmark
+    public double getRequiredBoilWaterEnergy() {
+        return ThermalPhysics.getRequiredBoilWaterEnergy(ThermalPhysics.getTemperatureForBiome(biomeTemperature, daytime), volume);
+    }
+}
@@ -0,0 +1,77 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import org.halvors.nuclearphysics.common.science.grid.thermal.ExplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ImplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ParallelThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A full thermal step over a reactor core of the given size, for every solver mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThermalStepBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int hotCells;
+
+    @Param({"sequential", "buffered", "parallel", "implicit"})
+    public String solver;
+
+    private FakeThermalWorld world;
+    private IThermalSolver thermalSolver;
+    private ThermalSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setupSolver() {
+        switch (solver) {
+            case "parallel":
+                thermalSolver = new ParallelThermalSolver(0);
+                break;
+
+            case "implicit":
+                thermalSolver = new ImplicitThermalSolver(1);
+                break;
+
+            default:
+                thermalSolver = new ExplicitThermalSolver();
+                break;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupWorld() {
+        world = new FakeThermalWorld(hotCells, 3000);
+
+        // Let heat spread out a bit first, so the step also covers the cells around the core.
+        for (int i = 0; i < 10; i++) {
+            world.step(thermalSolver);
+            world.heatCore();
+        }
+
+        snapshot = world.capture();
+    }
+
+    @Benchmark
+    public int step() {
+        final int cells = solver.equals("sequential") ? world.stepSequential() : world.step(thermalSolver);
+        world.heatCore();
+
+        return cells;
+    }
+
+    /**
+     * Only the part running on the grid ticker thread in the buffered modes.
+     */
+    @Benchmark
+    public double[] solve() {
+        return thermalSolver.solve(snapshot);
+    }
+}
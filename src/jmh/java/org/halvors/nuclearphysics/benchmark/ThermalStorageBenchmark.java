@@ -0,0 +1,60 @@
+package org.halvors.nuclearphysics.benchmark;
+
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Lookups and updates of single temperatures, what ThermalGrid.getTemperature() and addTemperature() do for every
+ * block that reactors and machines heat up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThermalStorageBenchmark {
+    private static final int POSITIONS = 4096;
+
+    @Param({"1000", "10000", "100000"})
+    public int hotCells;
+
+    private FakeThermalWorld world;
+    private long[] positions;
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = new FakeThermalWorld(hotCells, 1000);
+
+        // Half of the lookups hit the core, the other half miss it.
+        final Random random = new Random(0);
+        final long[] core = world.getCore();
+        positions = new long[POSITIONS];
+
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = i % 2 == 0 ? core[random.nextInt(core.length)] : ThermalStorage.pack(-1 - random.nextInt(64), 64 + random.nextInt(64), random.nextInt(64));
+        }
+    }
+
+    private long nextPosition() {
+        return positions[next++ & (POSITIONS - 1)];
+    }
+
+    @Benchmark
+    public double getTemperature() {
+        return world.getTemperature(nextPosition());
+    }
+
+    @Benchmark
+    public void addTemperature() {
+        final long pos = nextPosition();
+
+        // Heat up and cool down again, so the storage keeps its size.
+        world.addTemperature(pos, 10);
+        world.addTemperature(pos, -10);
+    }
+}
@@ -8,4 +8,19 @@ import org.halvors.nuclearphysics.api.tile.IReactor;
  */
 public interface IReactorComponent {
     void onReact(ItemStack itemStack, IReactor reactor);
+
+    /**
+     * Called once for the ticks a reactor missed while its chunk was unloaded, instead of onReact() for every one of
+     * them. The reactor is not heated by these ticks, so this only has to account for what the component uses up or
+     * creates.
+     *
+     * Whether the reactor is breeding is decided per reactor from the temperatures it and its neighbours were saved
+     * with, before any of them catches up. This is an approximation, the reactors are assumed to have stayed at those
+     * temperatures the whole time, and reactors loaded later only see the ones that were already loaded.
+     *
+     * @param breeding - if the reactor was hot enough, with enough hot reactors around it, to breed fuel.
+     */
+    default void onCatchUp(ItemStack itemStack, IReactor reactor, long ticks, boolean breeding) {
+
+    }
 }
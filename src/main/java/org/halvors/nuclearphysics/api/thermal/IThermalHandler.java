@@ -0,0 +1,22 @@
+package org.halvors.nuclearphysics.api.thermal;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/*
+ * Called for every block holding a temperature each thermal step, registered per block state or tile entity type in
+ * the ThermalRegistry. The handler of a block is only looked up again after the block changed.
+ */
+@FunctionalInterface
+public interface IThermalHandler {
+    /**
+     * @param world - the world the block is in.
+     * @param pos - the position of the block.
+     * @param temperature - the current temperature of the block.
+     * @param deltaTemperature - the ambient temperature minus the current temperature.
+     * @param heatLoss - the heat loss given by the thermal properties of the block.
+     *
+     * @return the temperature the block loses towards ambient temperature this step.
+     */
+    double getHeatLoss(World world, BlockPos pos, double temperature, double deltaTemperature, double heatLoss);
+}
@@ -0,0 +1,76 @@
+package org.halvors.nuclearphysics.api.thermal;
+
+import net.minecraft.block.state.IBlockState;
+
+/*
+ * How a block state takes part in the thermal grid.
+ */
+public class ThermalProperties {
+    private final double conductivity;
+    private final double heatCapacity;
+    private final double heatLoss;
+    private final double phaseChangeTemperature;
+    private final IBlockState phaseChangeState;
+    private final double phaseChangeHeatLoss;
+
+    /**
+     * @param conductivity - how well the block receives heat, relative to a solid block (1.0).
+     * @param heatCapacity - how much heat it takes to change the temperature of the block, relative to a solid block (1.0).
+     * @param heatLoss - the temperature in kelvin the block loses towards ambient temperature every step.
+     */
+    public ThermalProperties(final double conductivity, final double heatCapacity, final double heatLoss) {
+        this(conductivity, heatCapacity, heatLoss, Double.NaN, null, heatLoss);
+    }
+
+    /**
+     * @param conductivity - how well the block receives heat, relative to a solid block (1.0).
+     * @param heatCapacity - how much heat it takes to change the temperature of the block, relative to a solid block (1.0).
+     * @param heatLoss - the temperature in kelvin the block loses towards ambient temperature every step.
+     * @param phaseChangeTemperature - the temperature in kelvin at which the block changes phase, NaN if it never does.
+     * @param phaseChangeState - the state the block turns into when changing phase, or null if it stays as it is.
+     * @param phaseChangeHeatLoss - the heat loss used instead of heatLoss at or above the phase change temperature.
+     */
+    public ThermalProperties(final double conductivity, final double heatCapacity, final double heatLoss, final double phaseChangeTemperature, final IBlockState phaseChangeState, final double phaseChangeHeatLoss) {
+        this.conductivity = conductivity;
+        this.heatCapacity = heatCapacity;
+        this.heatLoss = heatLoss;
+        this.phaseChangeTemperature = phaseChangeTemperature;
+        this.phaseChangeState = phaseChangeState;
+        this.phaseChangeHeatLoss = phaseChangeHeatLoss;
+    }
+
+    public double getConductivity() {
+        return conductivity;
+    }
+
+    public double getHeatCapacity() {
+        return heatCapacity;
+    }
+
+    public double getHeatLoss() {
+        return heatLoss;
+    }
+
+    /**
+     * @return the heat loss for the block at the given temperature.
+     */
+    public double getHeatLoss(final double temperature) {
+        return isPhaseChanging(temperature) ? phaseChangeHeatLoss : heatLoss;
+    }
+
+    public double getPhaseChangeTemperature() {
+        return phaseChangeTemperature;
+    }
+
+    public IBlockState getPhaseChangeState() {
+        return phaseChangeState;
+    }
+
+    public double getPhaseChangeHeatLoss() {
+        return phaseChangeHeatLoss;
+    }
+
+    public boolean isPhaseChanging(final double temperature) {
+        return temperature >= phaseChangeTemperature;
+    }
+}
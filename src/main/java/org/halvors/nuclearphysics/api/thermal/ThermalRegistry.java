@@ -0,0 +1,119 @@
+package org.halvors.nuclearphysics.api.thermal;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Thermal properties and handlers of block states. Other mods can register their own blocks here, anything not
+ * registered gets properties based on its material the first time it is looked up.
+ */
+public class ThermalRegistry {
+    public static final ThermalProperties SOLID = new ThermalProperties(1, 1, 0.1);
+    public static final ThermalProperties NON_SOLID = new ThermalProperties(0.5, 1, 0.1);
+    public static final ThermalProperties AIR = new ThermalProperties(0.5, 1, 0.15);
+
+    // Keeps the heat loss given by the thermal properties.
+    public static final IThermalHandler DEFAULT_HANDLER = (world, pos, temperature, deltaTemperature, heatLoss) -> heatLoss;
+
+    private static final Map<IBlockState, ThermalProperties> PROPERTIES = new ConcurrentHashMap<>();
+    private static final Map<IBlockState, IThermalHandler> BLOCK_HANDLERS = new ConcurrentHashMap<>();
+
+    // Tile handlers may be registered for interfaces, so they are matched in registration order and cached per class.
+    private static final Map<Class<?>, IThermalHandler> TILE_HANDLERS = new LinkedHashMap<>();
+    private static final Map<Class<?>, IThermalHandler> TILE_HANDLER_CACHE = new ConcurrentHashMap<>();
+
+    public static void register(final IBlockState state, final ThermalProperties properties) {
+        if (state != null && properties != null) {
+            PROPERTIES.put(state, properties);
+        }
+    }
+
+    /**
+     * Registers the properties for every state of the block.
+     */
+    public static void register(final Block block, final ThermalProperties properties) {
+        if (block != null) {
+            for (final IBlockState state : block.getBlockState().getValidStates()) {
+                register(state, properties);
+            }
+        }
+    }
+
+    public static ThermalProperties getProperties(final IBlockState state) {
+        return PROPERTIES.computeIfAbsent(state, ThermalRegistry::getDefaultProperties);
+    }
+
+    private static ThermalProperties getDefaultProperties(final IBlockState state) {
+        final Material material = state.getBlock().getBlockState().getBaseState().getMaterial();
+
+        if (material == Material.AIR) {
+            return AIR;
+        }
+
+        return material.isSolid() ? SOLID : NON_SOLID;
+    }
+
+    public static void registerHandler(final IBlockState state, final IThermalHandler handler) {
+        if (state != null && handler != null) {
+            BLOCK_HANDLERS.put(state, handler);
+        }
+    }
+
+    /**
+     * Registers the handler for every state of the block.
+     */
+    public static void registerHandler(final Block block, final IThermalHandler handler) {
+        if (block != null) {
+            for (final IBlockState state : block.getBlockState().getValidStates()) {
+                registerHandler(state, handler);
+            }
+        }
+    }
+
+    /**
+     * Registers the handler for all tile entities of the type, including subclasses and implementations.
+     */
+    public static void registerHandler(final Class<?> tileType, final IThermalHandler handler) {
+        if (tileType != null && handler != null) {
+            synchronized (TILE_HANDLERS) {
+                TILE_HANDLERS.put(tileType, handler);
+                TILE_HANDLER_CACHE.clear();
+            }
+        }
+    }
+
+    /**
+     * Looks up the handler of a block, handlers of its tile entity take precedence over those of the block state.
+     *
+     * @return the handler, or DEFAULT_HANDLER if nothing is registered.
+     */
+    public static IThermalHandler getHandler(final IBlockState state, final TileEntity tile) {
+        if (tile != null) {
+            final IThermalHandler handler = TILE_HANDLER_CACHE.computeIfAbsent(tile.getClass(), ThermalRegistry::getTileHandler);
+
+            if (handler != DEFAULT_HANDLER) {
+                return handler;
+            }
+        }
+
+        return BLOCK_HANDLERS.getOrDefault(state, DEFAULT_HANDLER);
+    }
+
+    private static IThermalHandler getTileHandler(final Class<?> tileClass) {
+        synchronized (TILE_HANDLERS) {
+            for (final Map.Entry<Class<?>, IThermalHandler> entry : TILE_HANDLERS.entrySet()) {
+                if (entry.getKey().isAssignableFrom(tileClass)) {
+                    return entry.getValue();
+                }
+            }
+        }
+
+        return DEFAULT_HANDLER;
+    }
+}
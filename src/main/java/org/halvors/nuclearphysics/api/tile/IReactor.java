@@ -1,9 +1,18 @@
 package org.halvors.nuclearphysics.api.tile;
 
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidTank;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public interface IReactor {
+    ResourceLocation CONTROL_ROD = new ResourceLocation("nuclearphysics", "control_rod");
+
     void heat(long energy);
 
     double getTemperature();
@@ -13,4 +22,51 @@ public interface IReactor {
     FluidTank getTank();
 
     World getWorldObject();
+
+    /**
+     * Reactor components read this every tick, so it should be cached and only updated when blocks around the reactor
+     * change. By default the blocks beside the reactor are looked up every call.
+     *
+     * @return the number of control rods beside the reactor.
+     */
+    default int getControlRods() {
+        if (!(this instanceof TileEntity)) {
+            return 0;
+        }
+
+        final TileEntity tile = (TileEntity) this;
+        int controlRods = 0;
+
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            if (CONTROL_ROD.equals(getWorldObject().getBlockState(tile.getPos().offset(side)).getBlock().getRegistryName())) {
+                controlRods++;
+            }
+        }
+
+        return controlRods;
+    }
+
+    /**
+     * Cached like getControlRods(), by default the tiles beside the reactor are looked up every call.
+     *
+     * @return the reactors next to this one, fissile fuel only breeds with enough hot reactors around it.
+     */
+    default List<IReactor> getNeighborReactors() {
+        if (!(this instanceof TileEntity)) {
+            return Collections.emptyList();
+        }
+
+        final TileEntity tile = (TileEntity) this;
+        final List<IReactor> reactors = new ArrayList<>();
+
+        for (EnumFacing side : EnumFacing.values()) {
+            final TileEntity checkTile = getWorldObject().getTileEntity(tile.getPos().offset(side));
+
+            if (checkTile instanceof IReactor) {
+                reactors.add((IReactor) checkTile);
+            }
+        }
+
+        return reactors;
+    }
 }
\ No newline at end of file
@@ -21,8 +21,12 @@ public class RenderThermometer extends TileEntitySpecialRenderer<TileThermometer
         RenderUtility.renderText((tile.isOverThreshold() ? EnumColor.DARK_RED : EnumColor.DARK_BLUE) + "Threshold: " + UnitDisplay.getTemperatureDisplay(tile.getThershold()), tile.getFacing(), 1, x, y - 0.1, z);
 
         final BlockPos trackCoordinate = tile.getTrackCoordinate();
+        final BlockPos trackAreaCorner = tile.getTrackAreaCorner();
 
-        if (tile.getTrackCoordinate() != null) {
+        if (tile.isTrackingArea()) {
+            RenderUtility.renderText(trackCoordinate.getX() + ", " + trackCoordinate.getY() + ", " + trackCoordinate.getZ() + " - " + trackAreaCorner.getX() + ", " + trackAreaCorner.getY() + ", " + trackAreaCorner.getZ(), tile.getFacing(), 0.5F, x, y - 0.3, z);
+            RenderUtility.renderText(EnumColor.DARK_BLUE + "Average: " + UnitDisplay.getTemperatureDisplay(Math.round(tile.getAverageTemperature())), tile.getFacing(), 0.5F, x, y - 0.4, z);
+        } else if (tile.getTrackCoordinate() != null) {
             RenderUtility.renderText(trackCoordinate.getX() + ", " + trackCoordinate.getY() + ", " + trackCoordinate.getZ(), tile.getFacing(), 0.5F, x, y - 0.3, z);
         }
 
@@ -3,6 +3,7 @@ package org.halvors.nuclearphysics.common;
 import io.netty.buffer.ByteBuf;
 import net.minecraftforge.common.config.Configuration;
 import org.halvors.nuclearphysics.common.network.PacketHandler;
+import org.halvors.nuclearphysics.common.science.grid.thermal.EnumThermalSolver;
 import org.halvors.nuclearphysics.common.science.unit.EnumElectricUnit;
 import org.halvors.nuclearphysics.common.science.unit.EnumTemperatureUnit;
 
@@ -46,6 +47,32 @@ public class ConfigurationManager {
 
     }
 
+    // Only used on the server, so not synced to clients.
+    public static class Thermal {
+        public static final String CATEGORY = "thermal";
+
+        public static EnumThermalSolver solver;
+        public static double sleepThreshold;
+        public static int sleepSteps;
+        public static int solverThreads;
+        public static int timeStepMultiplier;
+        public static boolean postUpdateEvents;
+        public static int gridThreads;
+        public static int statisticsInterval;
+        public static double stepBudget;
+        public static int lodRadius;
+        public static int lodFactor;
+        public static int denseSectionCells;
+        public static int ambientEffectsPerChunk;
+    }
+
+    // Only used on the server, so not synced to clients.
+    public static class Offline {
+        public static final String CATEGORY = "offline";
+
+        public static int maxCatchUpTicks;
+    }
+
     // TODO: Testing new options.
     public static class Energy {
         public static int particleAcceleratorEnergyPerTick;
@@ -86,6 +113,22 @@ public class ConfigurationManager {
         //General.allowIC2UraniumCompression = configuration.get(Configuration.CATEGORY_GENERAL, "allowIC2UraniumCompression", true).getBoolean();
         General.allowGeneratedQuantumAssemblerRecipes = configuration.get(Configuration.CATEGORY_GENERAL, "allowGeneratedQuantumAssemblerRecipes", true).getBoolean();
 
+        Thermal.solver = EnumThermalSolver.fromName(configuration.get(Thermal.CATEGORY, "solver", EnumThermalSolver.SEQUENTIAL.getName(), "How heat spread is solved, 'sequential' updates blocks in place on the server thread, 'buffered' solves on the grid ticker thread, 'parallel' solves on a pool of worker threads, 'implicit' solves on the grid ticker thread and allows larger time steps.", EnumThermalSolver.getNames().toArray(new String[EnumThermalSolver.values().length])).getString());
+        Thermal.sleepThreshold = configuration.get(Thermal.CATEGORY, "sleepThreshold", 0.01, "Blocks changing less than this many kelvin per step are considered stable.").getDouble();
+        Thermal.sleepSteps = configuration.get(Thermal.CATEGORY, "sleepSteps", 20, "The number of successive stable steps before a block stops being updated, until something changes around it.", 1, Byte.MAX_VALUE).getInt();
+        Thermal.solverThreads = configuration.get(Thermal.CATEGORY, "solverThreads", 0, "The number of worker threads used by the 'parallel' solver, 0 uses one per processor.", 0, 64).getInt();
+        Thermal.timeStepMultiplier = configuration.get(Thermal.CATEGORY, "timeStepMultiplier", 1, "The number of ticks covered by one step of the 'implicit' solver, larger values step less often.", 1, 10).getInt();
+        Thermal.postUpdateEvents = configuration.get(Thermal.CATEGORY, "postUpdateEvents", false, "Post a ThermalUpdateEvent for every block in every thermal step, only needed by mods changing heat loss through the event.").getBoolean();
+        Thermal.gridThreads = configuration.get(Thermal.CATEGORY, "gridThreads", 1, "The number of threads ticking grids, grids are ticked in parallel when there is more than one.", 1, 16).getInt();
+        Thermal.stepBudget = configuration.get(Thermal.CATEGORY, "stepBudget", 10D, "Milliseconds the server thread may spend on a thermal step, blocks past it are updated in the next steps. 0 disables the limit.", 0D, 50D).getDouble();
+        Thermal.lodRadius = configuration.get(Thermal.CATEGORY, "lodRadius", 0, "Sections further than this many blocks away from players are simulated in coarse cells, 0 disables it.", 0, 1024).getInt();
+        Thermal.lodFactor = configuration.get(Thermal.CATEGORY, "lodFactor", 4, "Blocks along each side of a coarse cell, either 2 or 4.", 2, 4).getInt() > 2 ? 4 : 2;
+        Thermal.denseSectionCells = configuration.get(Thermal.CATEGORY, "denseSectionCells", 0, "Sections with at least this many blocks to solve are solved as one dense array by the buffered solvers, which is only faster on some machines. 0 disables it.", 0, 4096).getInt();
+        Thermal.ambientEffectsPerChunk = configuration.get(Thermal.CATEGORY, "ambientEffectsPerChunk", 8, "Boiling water effects sent to players per chunk and tick, further ones are merged into them. 0 disables the effects.", 0, 256).getInt();
+        Thermal.statisticsInterval = configuration.get(Thermal.CATEGORY, "statisticsInterval", 0, "Seconds between rows written to logs/" + Reference.ID + "-thermal.csv, 0 disables it.", 0, 3600).getInt();
+
+        Offline.maxCatchUpTicks = configuration.get(Offline.CATEGORY, "maxCatchUpTicks", 24000, "Reactor cells catch up on at most this many ticks they missed while their chunk was unloaded, 0 disables it.", 0, 72000).getInt();
+
         // TODO: Testing new options, and fix category.
         configuration.get(Configuration.CATEGORY_GENERAL, "particleAcceleratorEnergyPerTick", 19000).getInt();
 
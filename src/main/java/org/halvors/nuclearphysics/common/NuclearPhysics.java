@@ -14,10 +14,12 @@ import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
-import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.halvors.nuclearphysics.common.command.CommandNuclearPhysics;
 import org.halvors.nuclearphysics.common.entity.EntityParticle;
 import org.halvors.nuclearphysics.common.init.*;
 import org.halvors.nuclearphysics.common.network.PacketHandler;
@@ -90,18 +92,17 @@ public class NuclearPhysics {
             }
         });
 
+		// Register thermal properties, vanilla blocks are available by now.
+		ModThermalProperties.registerThermalProperties();
+
 		// Calling proxy handler.
 		proxy.init();
 	}
 
 	@EventHandler
 	public void postInit(FMLPostInitializationEvent event) {
-		if (!GridTicker.getInstance().isAlive()) {
-			GridTicker.getInstance().start();
-		}
-
-		// Register our grids.
-		GridTicker.getInstance().addGrid(new ThermalGrid());
+		// Register our grids, they are ticked while a server is running.
+		GridTicker.getInstance().addGrid(ThermalGrid.getInstance());
 
 		// Initialize mod integration.
 		Integration.initialize();
@@ -111,8 +112,17 @@ public class NuclearPhysics {
 	}
 
 	@EventHandler
-	public void serverStopping(FMLServerStoppingEvent event) {
-		GridTicker.getInstance().interrupt();
+	public void serverStarting(FMLServerStartingEvent event) {
+		GridTicker.getInstance().start(ConfigurationManager.Thermal.gridThreads);
+
+		event.registerServerCommand(new CommandNuclearPhysics());
+	}
+
+	@EventHandler
+	public void serverStopped(FMLServerStoppedEvent event) {
+		// Integrated servers can be started again in the same session, so the ticker is restarted with every server.
+		GridTicker.getInstance().stop();
+		ThermalGrid.stop();
 	}
 
 	public static NuclearPhysics getInstance() {
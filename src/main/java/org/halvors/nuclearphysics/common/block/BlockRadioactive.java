@@ -7,17 +7,16 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.init.Blocks;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.halvors.nuclearphysics.client.utility.RenderUtility;
 import org.halvors.nuclearphysics.common.ConfigurationManager.General;
+import org.halvors.nuclearphysics.common.effect.radiation.RadiationField;
 import org.halvors.nuclearphysics.common.init.ModPotions;
 import org.halvors.nuclearphysics.common.type.EnumParticleType;
 
-import java.util.List;
 import java.util.Random;
 
 public class BlockRadioactive extends BlockBase {
@@ -56,12 +55,7 @@ public class BlockRadioactive extends BlockBase {
     public void updateTick(final World world, final BlockPos pos, final IBlockState state, final Random random) {
         if (!world.isRemote) {
             if (isRandomlyRadioactive || General.allowRadioactiveOres) {
-                final AxisAlignedBB bounds = new AxisAlignedBB(pos.getX() - radius, pos.getY() - radius, pos.getZ() - radius, pos.getX() + radius, pos.getY() + radius, pos.getZ() + radius);
-                final List<EntityLivingBase> entitiesNearby = world.getEntitiesWithinAABB(EntityLivingBase.class, bounds);
-
-                for (EntityLivingBase entity : entitiesNearby) {
-                    ModPotions.poisonRadiation.poisonEntity(entity, amplifier);
-                }
+                RadiationField.irradiate(world, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, radius, amplifier, false);
             }
 
             if (canSpread) {
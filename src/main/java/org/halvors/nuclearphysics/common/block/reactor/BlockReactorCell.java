@@ -1,5 +1,6 @@
 package org.halvors.nuclearphysics.common.block.reactor;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -17,6 +18,7 @@ import org.halvors.nuclearphysics.api.item.IReactorComponent;
 import org.halvors.nuclearphysics.common.block.BlockInventory;
 import org.halvors.nuclearphysics.common.init.ModFluids;
 import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+import org.halvors.nuclearphysics.common.tile.reactor.ReactorCluster;
 import org.halvors.nuclearphysics.common.tile.reactor.TileReactorCell;
 import org.halvors.nuclearphysics.common.utility.PlayerUtility;
 
@@ -107,6 +109,15 @@ public class BlockReactorCell extends BlockInventory {
         return false;
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public void neighborChanged(final IBlockState state, final World world, final BlockPos pos, final Block block) {
+        // Cells syncing to clients notify their neighbours all the time, without changing anything next to them.
+        if (!world.isRemote && !TileReactorCell.isSyncing()) {
+            ReactorCluster.onNeighborChanged(world, pos);
+        }
+    }
+
     @Override
     @Nonnull
     public TileEntity createTileEntity(@Nonnull final World world, @Nonnull final IBlockState state) {
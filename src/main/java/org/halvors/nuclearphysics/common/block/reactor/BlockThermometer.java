@@ -68,6 +68,7 @@ public class BlockThermometer extends BlockRotatable {
             final TileThermometer tileThermometer = (TileThermometer) tile;
             final ItemBlockThermometer itemBlockThermometer = (ItemBlockThermometer) itemStack.getItem();
             tileThermometer.setTrackCoordinate(itemBlockThermometer.getSavedCoordinate(itemStack));
+            tileThermometer.setTrackAreaCorner(itemBlockThermometer.getSavedAreaCorner(itemStack));
         }
 
         super.onBlockPlacedBy(world, pos, state, entity, itemStack);
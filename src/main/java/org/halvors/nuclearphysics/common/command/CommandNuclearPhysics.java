@@ -0,0 +1,55 @@
+package org.halvors.nuclearphysics.common.command;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.halvors.nuclearphysics.common.Reference;
+import org.halvors.nuclearphysics.common.science.grid.ThermalStatisticsLogger;
+
+import java.util.Collections;
+import java.util.List;
+
+public class CommandNuclearPhysics extends CommandBase {
+    @Override
+    public String getName() {
+        return Reference.ID;
+    }
+
+    @Override
+    public String getUsage(final ICommandSender sender) {
+        return "/" + Reference.ID + " thermal stats";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void execute(final MinecraftServer server, final ICommandSender sender, final String[] args) throws CommandException {
+        if (args.length == 2 && args[0].equalsIgnoreCase("thermal") && args[1].equalsIgnoreCase("stats")) {
+            for (final String line : ThermalStatisticsLogger.getReport()) {
+                sender.sendMessage(new TextComponentString(line));
+            }
+
+            return;
+        }
+
+        throw new WrongUsageException(getUsage(sender));
+    }
+
+    @Override
+    public List<String> getTabCompletions(final MinecraftServer server, final ICommandSender sender, final String[] args, final BlockPos pos) {
+        if (args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "thermal");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("thermal")) {
+            return getListOfStringsMatchingLastWord(args, "stats");
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,133 @@
+package org.halvors.nuclearphysics.common.effect.ambient;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.halvors.nuclearphysics.common.ConfigurationManager.Thermal;
+import org.halvors.nuclearphysics.common.NuclearPhysics;
+import org.halvors.nuclearphysics.common.network.packet.PacketAmbientEffects;
+import org.halvors.nuclearphysics.common.type.EnumAmbientEffect;
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Collects ambient effects like boiling water during a tick and sends them to every nearby player as a single packet
+ * at the end of it, instead of a particle or sound packet per block.
+ *
+ * Every chunk keeps at most Thermal.ambientEffectsPerChunk effects per tick, picked at random from all added to it.
+ * The kept ones are weighted so clients still display as many particles and sounds as all of them would have.
+ * Only used from the server thread.
+ */
+public class AmbientEffectAggregator {
+    private static final Map<Integer, AmbientEffectAggregator> aggregators = new ConcurrentHashMap<>();
+
+    // Vanilla sends particles to players this many blocks away.
+    private static final double RANGE = 32;
+
+    private final LongObjectMap<ChunkEffects> chunks = new LongObjectMap<>();
+
+    /**
+     * Queues the effect at the position, it is sent to players by send().
+     */
+    public static void add(final World world, final BlockPos pos, final EnumAmbientEffect effect) {
+        if (Thermal.ambientEffectsPerChunk > 0) {
+            aggregators.computeIfAbsent(world.provider.getDimension(), dimension -> new AmbientEffectAggregator()).addEffect(pos, effect, world.rand);
+        }
+    }
+
+    /**
+     * Sends the effects of this tick to the players near them, at most one packet per player.
+     */
+    public static void send(final World world) {
+        final AmbientEffectAggregator aggregator = aggregators.get(world.provider.getDimension());
+
+        if (aggregator != null && !aggregator.chunks.isEmpty()) {
+            aggregator.sendEffects(world);
+        }
+    }
+
+    public static void unload(final World world) {
+        aggregators.remove(world.provider.getDimension());
+    }
+
+    private void addEffect(final BlockPos pos, final EnumAmbientEffect effect, final Random random) {
+        final long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        ChunkEffects effects = chunks.get(key);
+
+        if (effects == null) {
+            effects = new ChunkEffects(Thermal.ambientEffectsPerChunk);
+            chunks.put(key, effects);
+        }
+
+        effects.add(pos.toLong(), effect, random);
+    }
+
+    private void sendEffects(final World world) {
+        final ChunkEffects[] all = new ChunkEffects[chunks.size()];
+        final int[] index = { 0 };
+
+        chunks.forEachValue(effects -> all[index[0]++] = effects);
+        chunks.clear();
+
+        for (final EntityPlayer player : world.playerEntities) {
+            if (!(player instanceof EntityPlayerMP)) {
+                continue;
+            }
+
+            final PacketAmbientEffects packet = new PacketAmbientEffects();
+
+            for (final ChunkEffects effects : all) {
+                final float weight = effects.getWeight();
+
+                for (int i = 0; i < effects.size; i++) {
+                    final long pos = effects.positions[i];
+
+                    if (player.getDistanceSq(BlockPos.fromLong(pos)) <= RANGE * RANGE) {
+                        packet.add(pos, effects.effects[i], weight);
+                    }
+                }
+            }
+
+            if (!packet.isEmpty()) {
+                NuclearPhysics.getPacketHandler().sendTo(packet, (EntityPlayerMP) player);
+            }
+        }
+    }
+
+    private static class ChunkEffects {
+        private final long[] positions;
+        private final EnumAmbientEffect[] effects;
+        private int size;
+        private int added;
+
+        private ChunkEffects(final int capacity) {
+            positions = new long[capacity];
+            effects = new EnumAmbientEffect[capacity];
+        }
+
+        /**
+         * Reservoir sampling, so every effect added this tick has the same chance of being kept.
+         */
+        private void add(final long pos, final EnumAmbientEffect effect, final Random random) {
+            final int slot = size < positions.length ? size++ : random.nextInt(added + 1);
+            added++;
+
+            if (slot < positions.length) {
+                positions[slot] = pos;
+                effects[slot] = effect;
+            }
+        }
+
+        /**
+         * @return the number of added effects every kept one stands for.
+         */
+        private float getWeight() {
+            return (float) added / size;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package org.halvors.nuclearphysics.common.effect.explosion;
 
+import net.minecraft.enchantment.EnchantmentProtection;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.play.server.SPacketExplosion;
+import net.minecraft.util.DamageSource;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.Explosion;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.event.ForgeEventFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class ExplosionBase extends Explosion {
     protected final Random random = new Random();
     protected final World world;
+    protected final Entity exploder;
     protected final BlockPos pos;
     protected final float size;
 
@@ -21,12 +34,41 @@ public class ExplosionBase extends Explosion {
         super((World) world, entity, pos.getX(), pos.getY(), pos.getZ(), size, flaming, damagesTerrain);
 
         this.world = (World) world;
+        this.exploder = entity;
         this.pos = pos;
         this.size = size;
     }
 
+    /**
+     * On the server the explosion is computed by the ExplosionEngine first, so it happens a tick or so later.
+     */
     public void explode() {
-        doExplosionA();
+        if (world instanceof WorldServer) {
+            ExplosionEngine.explode(this, (WorldServer) world);
+        } else {
+            explode(null, null);
+        }
+    }
+
+    ExplosionSnapshot capture() {
+        return ExplosionSnapshot.capture(world, this, exploder, pos.getX(), pos.getY(), pos.getZ(), size);
+    }
+
+    /**
+     * Applies the computed explosion, or computes it right away if there is no result.
+     */
+    void explode(@Nullable final ExplosionSnapshot snapshot, @Nullable final ExplosionSnapshot.Result result) {
+        // The world might have been unloaded while the explosion was computed.
+        if (!world.isRemote && DimensionManager.getWorld(world.provider.getDimension()) != world) {
+            return;
+        }
+
+        if (snapshot != null && result != null) {
+            applyExplosionA(snapshot, result);
+        } else {
+            doExplosionA();
+        }
+
         doExplosionB(true);
 
         // Send explosion packet to the client for client-side explosion.
@@ -38,4 +80,71 @@ public class ExplosionBase extends Explosion {
             }
         }
     }
+
+    /**
+     * Does the same as doExplosionA(), with the blocks and entity exposures computed from the snapshot.
+     */
+    private void applyExplosionA(final ExplosionSnapshot snapshot, final ExplosionSnapshot.Result result) {
+        final double x = pos.getX();
+        final double y = pos.getY();
+        final double z = pos.getZ();
+        final float radius = size * 2;
+        final List<Entity> entities = new ArrayList<>(snapshot.getEntities());
+        final Map<Entity, Float> exposures = new IdentityHashMap<>();
+
+        for (int i = 0; i < entities.size(); i++) {
+            exposures.put(entities.get(i), result.getExposure(i));
+        }
+
+        // Explosion.doExplosionA() lets the exploder verify every ray reaching a block, here only the strongest one is.
+        for (int i = 0; i < result.getBlocks().size(); i++) {
+            final BlockPos blockPos = result.getBlocks().get(i);
+
+            if (exploder == null || exploder.verifyExplosion(this, world, blockPos, world.getBlockState(blockPos), result.getStrength(i))) {
+                getAffectedBlockPositions().add(blockPos);
+            }
+        }
+
+        ForgeEventFactory.onExplosionDetonate(world, this, entities, radius);
+
+        for (final Entity entity : entities) {
+            final Float exposure = exposures.get(entity);
+
+            // Entities might have died or changed worlds while the explosion was computed.
+            if (exposure == null || entity.isDead || entity.getEntityWorld() != world || entity.isImmuneToExplosions()) {
+                continue;
+            }
+
+            final double distance = entity.getDistance(x, y, z) / radius;
+
+            if (distance <= 1) {
+                double deltaX = entity.posX - x;
+                double deltaY = entity.posY + entity.getEyeHeight() - y;
+                double deltaZ = entity.posZ - z;
+                final double length = Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+
+                if (length != 0) {
+                    deltaX /= length;
+                    deltaY /= length;
+                    deltaZ /= length;
+
+                    final double impact = (1 - distance) * exposure;
+                    entity.attackEntityFrom(DamageSource.causeExplosionDamage(this), (float) (int) ((impact * impact + impact) / 2 * 7 * radius + 1));
+
+                    final double knockback = entity instanceof EntityLivingBase ? EnchantmentProtection.getBlastDamageReduction((EntityLivingBase) entity, impact) : impact;
+                    entity.motionX += deltaX * knockback;
+                    entity.motionY += deltaY * knockback;
+                    entity.motionZ += deltaZ * knockback;
+
+                    if (entity instanceof EntityPlayer) {
+                        final EntityPlayer player = (EntityPlayer) entity;
+
+                        if (!player.isSpectator() && (!player.isCreative() || !player.capabilities.isFlying)) {
+                            getPlayerKnockbackMap().put(player, new Vec3d(deltaX * impact, deltaY * impact, deltaZ * impact));
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package org.halvors.nuclearphysics.common.effect.explosion;
+
+import net.minecraft.world.WorldServer;
+import org.halvors.nuclearphysics.common.NuclearPhysics;
+import org.halvors.nuclearphysics.common.Reference;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Computes explosions on a worker thread. The server thread only captures the snapshot of what an explosion reaches and
+ * applies the computed result, usually on the next tick.
+ */
+public class ExplosionEngine {
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, Reference.NAME + " Explosion Engine");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * Explodes the explosion once it has been computed, to be called on the server thread.
+     */
+    public static void explode(final ExplosionBase explosion, final WorldServer world) {
+        final ExplosionSnapshot snapshot = explosion.capture();
+
+        CompletableFuture.supplyAsync(snapshot::compute, executor).whenComplete((result, throwable) -> world.addScheduledTask(() -> {
+            if (throwable != null) {
+                NuclearPhysics.getLogger().error("An error occurred when computing an explosion, computing it on the server thread instead.", throwable);
+            }
+
+            explosion.explode(snapshot, result);
+        }));
+    }
+}
@@ -0,0 +1,443 @@
+package org.halvors.nuclearphysics.common.effect.explosion;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
+import net.minecraft.world.Explosion;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * The blocks and entities around an explosion, captured on the server thread so the explosion can be computed on a
+ * worker thread without touching the world.
+ *
+ * Blocks only keep their explosion resistance and whether they stop the rays finding how exposed entities are, both
+ * looked up once per block state unless the resistance can differ by position. compute() casts the same rays as
+ * Explosion.doExplosionA() against them, and finds the exposure of the entities like World.getBlockDensity() does,
+ * counting blocking blocks as full cubes.
+ */
+public class ExplosionSnapshot {
+    // Explosion rays advance 0.3 blocks per step and lose this much strength per step on top of what blocks absorb.
+    private static final double STEP = 0.3;
+    private static final float STEP_STRENGTH = 0.22500001F;
+
+    // Rays along the faces of a cube of this many rays per side.
+    private static final int RAYS = 16;
+
+    // Exposure is sampled across the bounding box of an entity, up to this far beyond its position.
+    private static final int ENTITY_REACH = 3;
+
+    private static final short AIR = 0;
+    private static final short UNLOADED = 1;
+
+    // Whether blocks of the class override the position aware explosion resistance, Block only uses the exploder.
+    private static final ClassValue<Boolean> POSITION_AWARE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("getExplosionResistance", World.class, BlockPos.class, Entity.class, Explosion.class).getDeclaringClass() != Block.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float size;
+    private final long seed;
+
+    private final int radius;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final short[] states;
+
+    // Per index in states.
+    private float[] resistances = new float[16];
+    private boolean[] positional = new boolean[16];
+    private boolean[] blocking = new boolean[16];
+
+    // Per index in the cube, for the states with positional resistance.
+    private float[] positionResistances;
+
+    private final List<Entity> entities;
+    private final AxisAlignedBB[] entityBounds;
+
+    private ExplosionSnapshot(final double x, final double y, final double z, final float size, final long seed, final int radius, final List<Entity> entities) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.size = size;
+        this.seed = seed;
+        this.radius = radius;
+        this.minX = floor(x) - radius;
+        this.minY = Math.max(floor(y) - radius, 0);
+        this.minZ = floor(z) - radius;
+        this.sizeX = radius * 2 + 1;
+        this.sizeY = Math.min(floor(y) + radius, 255) - minY + 1;
+        this.sizeZ = radius * 2 + 1;
+        this.states = new short[sizeX * Math.max(sizeY, 0) * sizeZ];
+        this.entities = entities;
+        this.entityBounds = new AxisAlignedBB[entities.size()];
+
+        resistances[UNLOADED] = Float.MAX_VALUE;
+        blocking[UNLOADED] = true;
+
+        for (int i = 0; i < entityBounds.length; i++) {
+            entityBounds[i] = entities.get(i).getEntityBoundingBox();
+        }
+    }
+
+    /**
+     * Captures everything the explosion reaches, to be called on the server thread.
+     */
+    public static ExplosionSnapshot capture(final World world, final Explosion explosion, @Nullable final Entity exploder, final double x, final double y, final double z, final float size) {
+        // Entities are affected up to twice the size away, rays reach at most 1.3 * size / STEP_STRENGTH steps.
+        final double entityRadius = size * 2 + 1;
+        final List<Entity> entities = world.getEntitiesWithinAABBExcludingEntity(exploder, new AxisAlignedBB(x - entityRadius, y - entityRadius, z - entityRadius, x + entityRadius, y + entityRadius, z + entityRadius));
+        final int radius = (int) Math.ceil(Math.max(1.3 * size / STEP_STRENGTH * STEP, entities.isEmpty() ? 0 : entityRadius + ENTITY_REACH)) + 1;
+        final ExplosionSnapshot snapshot = new ExplosionSnapshot(x, y, z, size, world.rand.nextLong(), radius, entities);
+
+        snapshot.captureBlocks(world, explosion, exploder);
+
+        return snapshot;
+    }
+
+    private void captureBlocks(final World world, final Explosion explosion, @Nullable final Entity exploder) {
+        final Map<IBlockState, Short> indices = new IdentityHashMap<>();
+        final MutableBlockPos pos = new MutableBlockPos();
+        short next = UNLOADED + 1;
+
+        for (int chunkX = minX >> 4; chunkX <= (minX + sizeX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (minZ + sizeZ - 1) >> 4; chunkZ++) {
+                final Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+                final ExtendedBlockStorage[] storages = chunk != null ? chunk.getBlockStorageArray() : null;
+                final int startX = Math.max(chunkX << 4, minX);
+                final int endX = Math.min((chunkX << 4) + 15, minX + sizeX - 1);
+                final int startZ = Math.max(chunkZ << 4, minZ);
+                final int endZ = Math.min((chunkZ << 4) + 15, minZ + sizeZ - 1);
+
+                for (int blockX = startX; blockX <= endX; blockX++) {
+                    for (int blockZ = startZ; blockZ <= endZ; blockZ++) {
+                        // Only the blocks within the sphere rays and exposures reach, the rest of the cube is left as air.
+                        final double horizontal = square(blockX + 0.5 - x) + square(blockZ + 0.5 - z);
+
+                        if (horizontal > radius * radius) {
+                            continue;
+                        }
+
+                        final double height = Math.sqrt(radius * radius - horizontal);
+                        final int startY = Math.max(floor(y - height), minY);
+                        final int endY = Math.min(floor(y + height), minY + sizeY - 1);
+
+                        for (int blockY = startY; blockY <= endY; blockY++) {
+                            final int index = getIndex(blockX, blockY, blockZ);
+
+                            if (storages == null) {
+                                states[index] = UNLOADED;
+
+                                continue;
+                            }
+
+                            final ExtendedBlockStorage storage = storages[blockY >> 4];
+
+                            // Empty sections are all air.
+                            if (storage == null || storage.isEmpty()) {
+                                blockY |= 15;
+
+                                continue;
+                            }
+
+                            final IBlockState state = storage.get(blockX & 15, blockY & 15, blockZ & 15);
+
+                            if (state.getMaterial() == Material.AIR) {
+                                continue;
+                            }
+
+                            Short stateIndex = indices.get(state);
+
+                            if (stateIndex == null) {
+                                final BlockPos statePos = pos.setPos(blockX, blockY, blockZ).toImmutable();
+
+                                if (next == Short.MAX_VALUE) {
+                                    states[index] = UNLOADED;
+
+                                    continue;
+                                } else if (next == resistances.length) {
+                                    resistances = Arrays.copyOf(resistances, next * 2);
+                                    positional = Arrays.copyOf(positional, next * 2);
+                                    blocking = Arrays.copyOf(blocking, next * 2);
+                                }
+
+                                stateIndex = next++;
+
+                                // The exploder might resist differently anywhere, so does a block overriding the position aware resistance.
+                                positional[stateIndex] = exploder != null || POSITION_AWARE.get(state.getBlock().getClass());
+                                resistances[stateIndex] = positional[stateIndex] ? 0 : getResistance(world, explosion, exploder, statePos, state);
+                                blocking[stateIndex] = state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, statePos) != Block.NULL_AABB;
+                                indices.put(state, stateIndex);
+                            }
+
+                            if (positional[stateIndex]) {
+                                if (positionResistances == null) {
+                                    positionResistances = new float[states.length];
+                                }
+
+                                positionResistances[index] = getResistance(world, explosion, exploder, new BlockPos(blockX, blockY, blockZ), state);
+                            }
+
+                            states[index] = stateIndex;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the explosion resistance of the block at the position, like Explosion.doExplosionA() looks it up.
+     */
+    private static float getResistance(final World world, final Explosion explosion, @Nullable final Entity exploder, final BlockPos pos, final IBlockState state) {
+        return exploder != null ? exploder.getExplosionResistance(explosion, world, pos, state) : state.getBlock().getExplosionResistance(world, pos, null, explosion);
+    }
+
+    /**
+     * Computes the explosion from the snapshot, safe to be called from any thread.
+     */
+    public Result compute() {
+        final Random random = new Random(seed);
+        final Map<BlockPos, Float> blocks = new HashMap<>();
+
+        for (int rayX = 0; rayX < RAYS; rayX++) {
+            for (int rayY = 0; rayY < RAYS; rayY++) {
+                for (int rayZ = 0; rayZ < RAYS; rayZ++) {
+                    if (rayX != 0 && rayX != RAYS - 1 && rayY != 0 && rayY != RAYS - 1 && rayZ != 0 && rayZ != RAYS - 1) {
+                        continue;
+                    }
+
+                    double directionX = rayX / (RAYS - 1F) * 2 - 1;
+                    double directionY = rayY / (RAYS - 1F) * 2 - 1;
+                    double directionZ = rayZ / (RAYS - 1F) * 2 - 1;
+                    final double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+                    directionX /= length;
+                    directionY /= length;
+                    directionZ /= length;
+
+                    float strength = size * (0.7F + random.nextFloat() * 0.6F);
+                    double rayPosX = x;
+                    double rayPosY = y;
+                    double rayPosZ = z;
+
+                    for (; strength > 0; strength -= STEP_STRENGTH) {
+                        final int blockX = floor(rayPosX);
+                        final int blockY = floor(rayPosY);
+                        final int blockZ = floor(rayPosZ);
+                        final short state = getState(blockX, blockY, blockZ);
+
+                        if (state != AIR) {
+                            strength -= ((positional[state] ? positionResistances[getIndex(blockX, blockY, blockZ)] : resistances[state]) + 0.3F) * 0.3F;
+                        }
+
+                        // The strongest ray reaching the block, for the exploder to verify.
+                        if (strength > 0) {
+                            blocks.merge(new BlockPos(blockX, blockY, blockZ), strength, Math::max);
+                        }
+
+                        rayPosX += directionX * STEP;
+                        rayPosY += directionY * STEP;
+                        rayPosZ += directionZ * STEP;
+                    }
+                }
+            }
+        }
+
+        final float[] exposures = new float[entityBounds.length];
+
+        for (int i = 0; i < entityBounds.length; i++) {
+            exposures[i] = getExposure(entityBounds[i]);
+        }
+
+        final List<BlockPos> positions = new ArrayList<>(blocks.size());
+        final float[] strengths = new float[blocks.size()];
+
+        for (final Map.Entry<BlockPos, Float> entry : blocks.entrySet()) {
+            strengths[positions.size()] = entry.getValue();
+            positions.add(entry.getKey());
+        }
+
+        return new Result(positions, strengths, exposures);
+    }
+
+    /**
+     * @return the share of points in the bounds that the explosion can reach unblocked, like World.getBlockDensity().
+     */
+    private float getExposure(final AxisAlignedBB bounds) {
+        final double stepX = 1 / ((bounds.maxX - bounds.minX) * 2 + 1);
+        final double stepY = 1 / ((bounds.maxY - bounds.minY) * 2 + 1);
+        final double stepZ = 1 / ((bounds.maxZ - bounds.minZ) * 2 + 1);
+        final double offsetX = (1 - Math.floor(1 / stepX) * stepX) / 2;
+        final double offsetZ = (1 - Math.floor(1 / stepZ) * stepZ) / 2;
+
+        if (stepX < 0 || stepY < 0 || stepZ < 0) {
+            return 0;
+        }
+
+        int unblocked = 0;
+        int total = 0;
+
+        for (float fractionX = 0; fractionX <= 1; fractionX = (float) (fractionX + stepX)) {
+            for (float fractionY = 0; fractionY <= 1; fractionY = (float) (fractionY + stepY)) {
+                for (float fractionZ = 0; fractionZ <= 1; fractionZ = (float) (fractionZ + stepZ)) {
+                    final double pointX = bounds.minX + (bounds.maxX - bounds.minX) * fractionX + offsetX;
+                    final double pointY = bounds.minY + (bounds.maxY - bounds.minY) * fractionY;
+                    final double pointZ = bounds.minZ + (bounds.maxZ - bounds.minZ) * fractionZ + offsetZ;
+
+                    if (!isBlocked(pointX, pointY, pointZ)) {
+                        unblocked++;
+                    }
+
+                    total++;
+                }
+            }
+        }
+
+        return (float) unblocked / total;
+    }
+
+    /**
+     * @return whether a blocking block lies on the line from the point to the center of the explosion, found by walking
+     * through every block the line passes.
+     */
+    private boolean isBlocked(final double startX, final double startY, final double startZ) {
+        final double deltaX = x - startX;
+        final double deltaY = y - startY;
+        final double deltaZ = z - startZ;
+        final int endX = floor(x);
+        final int endY = floor(y);
+        final int endZ = floor(z);
+        int blockX = floor(startX);
+        int blockY = floor(startY);
+        int blockZ = floor(startZ);
+
+        // How far along the line the next block boundary on every axis is, and how far apart boundaries are.
+        final double stepX = deltaX != 0 ? Math.abs(1 / deltaX) : Double.POSITIVE_INFINITY;
+        final double stepY = deltaY != 0 ? Math.abs(1 / deltaY) : Double.POSITIVE_INFINITY;
+        final double stepZ = deltaZ != 0 ? Math.abs(1 / deltaZ) : Double.POSITIVE_INFINITY;
+        double nextX = getFirstBoundary(startX, blockX, deltaX, stepX);
+        double nextY = getFirstBoundary(startY, blockY, deltaY, stepY);
+        double nextZ = getFirstBoundary(startZ, blockZ, deltaZ, stepZ);
+
+        // Same limit as World.rayTraceBlocks().
+        for (int i = 0; i <= 200; i++) {
+            if (blocking[getState(blockX, blockY, blockZ)]) {
+                return true;
+            }
+
+            if (blockX == endX && blockY == endY && blockZ == endZ) {
+                return false;
+            }
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                blockX += deltaX > 0 ? 1 : -1;
+                nextX += stepX;
+            } else if (nextY <= nextZ) {
+                blockY += deltaY > 0 ? 1 : -1;
+                nextY += stepY;
+            } else {
+                blockZ += deltaZ > 0 ? 1 : -1;
+                nextZ += stepZ;
+            }
+        }
+
+        return false;
+    }
+
+    private static double getFirstBoundary(final double start, final int block, final double delta, final double step) {
+        if (delta == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return delta > 0 ? (block + 1 - start) * step : (start - block) * step;
+    }
+
+    private short getState(final int blockX, final int blockY, final int blockZ) {
+        // Above and below the world is air, like World.getBlockState() has it.
+        if (blockY < minY || blockY >= minY + sizeY) {
+            return AIR;
+        }
+
+        if (blockX < minX || blockX >= minX + sizeX || blockZ < minZ || blockZ >= minZ + sizeZ) {
+            return UNLOADED;
+        }
+
+        return states[getIndex(blockX, blockY, blockZ)];
+    }
+
+    private int getIndex(final int blockX, final int blockY, final int blockZ) {
+        return ((blockX - minX) * sizeZ + (blockZ - minZ)) * sizeY + (blockY - minY);
+    }
+
+    private static double square(final double value) {
+        return value * value;
+    }
+
+    private static int floor(final double value) {
+        return (int) Math.floor(value);
+    }
+
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    public static class Result {
+        private final List<BlockPos> blocks;
+        private final float[] strengths;
+        private final float[] exposures;
+
+        private Result(final List<BlockPos> blocks, final float[] strengths, final float[] exposures) {
+            this.blocks = blocks;
+            this.strengths = strengths;
+            this.exposures = exposures;
+        }
+
+        /**
+         * @return the positions the explosion reaches, including air like Explosion.getAffectedBlockPositions().
+         */
+        public List<BlockPos> getBlocks() {
+            return blocks;
+        }
+
+        /**
+         * @return the strength of the strongest ray reaching the block at the index in getBlocks().
+         */
+        public float getStrength(final int index) {
+            return strengths[index];
+        }
+
+        /**
+         * @return how exposed the entity at the index in getEntities() is to the explosion, from 0 to 1.
+         */
+        public float getExposure(final int index) {
+            return exposures[index];
+        }
+    }
+}
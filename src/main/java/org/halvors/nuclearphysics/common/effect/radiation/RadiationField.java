@@ -0,0 +1,185 @@
+package org.halvors.nuclearphysics.common.effect.radiation;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.world.World;
+import org.halvors.nuclearphysics.common.init.ModPotions;
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * A coarse field of radiation doses per dimension, in cells of 4x4x4 blocks.
+ *
+ * Radioactive things add their dose to the cells around them, living entities look up the cell they are in once per
+ * INTERVAL and are poisoned with a chance of its dose. Doses are collected for one interval and read during the next,
+ * after which they are gone, so continuous sources have to add their dose again every interval. This replaces every
+ * source looking for the entities around it on its own. Sources that only poisoned EntityLiving, which leaves out
+ * players and armor stands, add a dose that only those look up. Only used from the server thread.
+ */
+public class RadiationField {
+    private static final Map<Integer, RadiationField> fields = new ConcurrentHashMap<>();
+
+    // Ticks between entities looking up their dose, and how long an added dose lasts.
+    public static final int INTERVAL = 20;
+
+    // Blocks along each side of a cell are 1 << CELL_SHIFT.
+    private static final int CELL_SHIFT = 2;
+    private static final double CELL_CENTER = (1 << CELL_SHIFT) / 2D;
+
+    // Same layout as BlockPos.toLong(), for cell coordinates.
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+
+    private LongObjectMap<Cell> collecting = new LongObjectMap<>();
+    private LongObjectMap<Cell> current = new LongObjectMap<>();
+    private long interval = Long.MIN_VALUE;
+
+    /**
+     * Poisons living entities within the radius of the position during the next interval, for one time sources like
+     * explosions this is the same as poisoning every entity nearby.
+     *
+     * @param livingOnly - only poison EntityLiving, not players.
+     */
+    public static void irradiate(final World world, final double x, final double y, final double z, final double radius, final int amplifier, final boolean livingOnly) {
+        add(world, x, y, z, radius, amplifier, 1, false, livingOnly);
+    }
+
+    /**
+     * Adds a dose to the cells within the radius of the position, falling off with the distance from it.
+     *
+     * @param dose - the chance of an entity one block away being poisoned during the next interval.
+     * @param livingOnly - only poison EntityLiving, not players.
+     */
+    public static void emit(final World world, final double x, final double y, final double z, final double radius, final int amplifier, final float dose, final boolean livingOnly) {
+        add(world, x, y, z, radius, amplifier, dose, true, livingOnly);
+    }
+
+    /**
+     * Poisons the entity with the chance of the dose in its cell, to be called once per INTERVAL for every entity.
+     */
+    public static void expose(final EntityLivingBase entity) {
+        final World world = entity.getEntityWorld();
+        final RadiationField field = fields.get(world.provider.getDimension());
+
+        if (field == null) {
+            return;
+        }
+
+        final Cell cell = field.getCurrent(world.getTotalWorldTime()).get(getKey(floor(entity.posX) >> CELL_SHIFT, floor(entity.posY) >> CELL_SHIFT, floor(entity.posZ) >> CELL_SHIFT));
+
+        if (cell != null) {
+            if (entity instanceof EntityLiving && world.rand.nextFloat() < cell.dose + cell.livingDose) {
+                ModPotions.poisonRadiation.poisonEntity(entity, Math.max(cell.amplifier, cell.livingAmplifier));
+            } else if (world.rand.nextFloat() < cell.dose) {
+                ModPotions.poisonRadiation.poisonEntity(entity, cell.amplifier);
+            }
+        }
+    }
+
+    public static void unload(final World world) {
+        fields.remove(world.provider.getDimension());
+    }
+
+    private static void add(final World world, final double x, final double y, final double z, final double radius, final int amplifier, final float dose, final boolean falloff, final boolean livingOnly) {
+        if (world.isRemote) {
+            return;
+        }
+
+        final LongObjectMap<Cell> cells = fields.computeIfAbsent(world.provider.getDimension(), dimension -> new RadiationField()).getCollecting(world.getTotalWorldTime());
+        final int minX = floor(x - radius) >> CELL_SHIFT;
+        final int minY = Math.max(floor(y - radius), 0) >> CELL_SHIFT;
+        final int minZ = floor(z - radius) >> CELL_SHIFT;
+        final int maxX = floor(x + radius) >> CELL_SHIFT;
+        final int maxY = Math.min(floor(y + radius), world.getHeight() - 1) >> CELL_SHIFT;
+        final int maxZ = floor(z + radius) >> CELL_SHIFT;
+
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellY = minY; cellY <= maxY; cellY++) {
+                for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                    float cellDose = dose;
+
+                    if (falloff) {
+                        final double deltaX = (cellX << CELL_SHIFT) + CELL_CENTER - x;
+                        final double deltaY = (cellY << CELL_SHIFT) + CELL_CENTER - y;
+                        final double deltaZ = (cellZ << CELL_SHIFT) + CELL_CENTER - z;
+
+                        cellDose /= Math.max(Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ), 1);
+                    }
+
+                    final long key = getKey(cellX, cellY, cellZ);
+                    Cell cell = cells.get(key);
+
+                    if (cell == null) {
+                        cell = new Cell();
+                        cells.put(key, cell);
+                    }
+
+                    // Doses of several sources add up, the strongest of them decides how bad the poisoning is.
+                    if (livingOnly) {
+                        cell.livingDose += cellDose;
+                        cell.livingAmplifier = Math.max(cell.livingAmplifier, amplifier);
+                    } else {
+                        cell.dose += cellDose;
+                        cell.amplifier = Math.max(cell.amplifier, amplifier);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int floor(final double value) {
+        return (int) Math.floor(value);
+    }
+
+    private static long getKey(final int cellX, final int cellY, final int cellZ) {
+        return ((cellX & XZ_MASK) << (Y_BITS + XZ_BITS)) | ((cellY & Y_MASK) << XZ_BITS) | (cellZ & XZ_MASK);
+    }
+
+    private LongObjectMap<Cell> getCollecting(final long time) {
+        advance(time);
+
+        return collecting;
+    }
+
+    private LongObjectMap<Cell> getCurrent(final long time) {
+        advance(time);
+
+        return current;
+    }
+
+    /**
+     * Makes the doses collected during the previous interval current, and drops everything older.
+     */
+    private void advance(final long time) {
+        final long now = time / INTERVAL;
+
+        if (now == interval) {
+            return;
+        }
+
+        final LongObjectMap<Cell> previous = current;
+        previous.clear();
+
+        if (now == interval + 1) {
+            current = collecting;
+            collecting = previous;
+        } else {
+            collecting.clear();
+        }
+
+        interval = now;
+    }
+
+    private static class Cell {
+        private float dose;
+        private int amplifier;
+
+        // Only looked up by EntityLiving.
+        private float livingDose;
+        private int livingAmplifier;
+    }
+}
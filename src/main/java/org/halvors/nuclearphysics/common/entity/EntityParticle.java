@@ -2,7 +2,6 @@ package org.halvors.nuclearphysics.common.entity;
 
 import io.netty.buffer.ByteBuf;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
@@ -22,7 +21,7 @@ import net.minecraftforge.common.ForgeChunkManager.Type;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import org.halvors.nuclearphysics.api.tile.IElectromagnet;
 import org.halvors.nuclearphysics.common.NuclearPhysics;
-import org.halvors.nuclearphysics.common.init.ModPotions;
+import org.halvors.nuclearphysics.common.effect.radiation.RadiationField;
 import org.halvors.nuclearphysics.common.init.ModSoundEvents;
 import org.halvors.nuclearphysics.common.tile.particle.TileParticleAccelerator;
 
@@ -289,13 +288,7 @@ public class EntityParticle extends Entity implements IEntityAdditionalSpawnData
             world.createExplosion(this, posX, posY, posZ, (float) getVelocity() * 2.5F, true);
         }
 
-        final float radius = 6;
-        final AxisAlignedBB bounds = new AxisAlignedBB(posX - radius, posY - radius, posZ - radius, posX + radius, posY + radius, posZ + radius);
-        final List<EntityLivingBase> entitiesNearby = world.getEntitiesWithinAABB(EntityLivingBase.class, bounds);
-
-        for (EntityLivingBase entity : entitiesNearby) {
-            ModPotions.poisonRadiation.poisonEntity(entity);
-        }
+        RadiationField.irradiate(world, posX, posY, posZ, 6, 0, false);
 
         setDead();
     }
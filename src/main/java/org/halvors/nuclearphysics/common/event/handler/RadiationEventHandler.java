@@ -0,0 +1,28 @@
+package org.halvors.nuclearphysics.common.event.handler;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.halvors.nuclearphysics.common.effect.radiation.RadiationField;
+
+@EventBusSubscriber
+public class RadiationEventHandler {
+    @SubscribeEvent
+    public static void onLivingUpdateEvent(final LivingUpdateEvent event) {
+        final EntityLivingBase entity = event.getEntityLiving();
+
+        // Entities look up their dose at different ticks, spread by their age.
+        if (!entity.getEntityWorld().isRemote && entity.ticksExisted % RadiationField.INTERVAL == 0) {
+            RadiationField.expose(entity);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnloadEvent(final WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote) {
+            RadiationField.unload(event.getWorld());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.halvors.nuclearphysics.common.event.handler;
+
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.halvors.nuclearphysics.common.tile.reactor.ReactorCluster;
+
+@EventBusSubscriber
+public class ReactorEventHandler {
+    @SubscribeEvent
+    public static void onWorldUnloadEvent(final WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote) {
+            ReactorCluster.unload(event.getWorld());
+        }
+    }
+}
@@ -1,80 +1,74 @@
 package org.halvors.nuclearphysics.common.event.handler;
 
-import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
-import net.minecraft.init.SoundEvents;
 import net.minecraft.tileentity.TileEntity;
-import net.minecraft.util.EnumFacing;
-import net.minecraft.util.EnumParticleTypes;
-import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fluids.Fluid;
-import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
-import org.halvors.nuclearphysics.api.fluid.IBoilHandler;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
 import org.halvors.nuclearphysics.api.tile.IElectromagnet;
 import org.halvors.nuclearphysics.common.ConfigurationManager.General;
 import org.halvors.nuclearphysics.common.NuclearPhysics;
-import org.halvors.nuclearphysics.common.capabilities.CapabilityBoilHandler;
+import org.halvors.nuclearphysics.common.effect.ambient.AmbientEffectAggregator;
 import org.halvors.nuclearphysics.common.event.BoilEvent;
 import org.halvors.nuclearphysics.common.event.PlasmaEvent.PlasmaSpawnEvent;
-import org.halvors.nuclearphysics.common.event.ThermalEvent.ThermalUpdateEvent;
+import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
+import org.halvors.nuclearphysics.common.science.physics.AmbientTemperatureCache;
+import org.halvors.nuclearphysics.common.science.physics.SteamRouter;
 import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+import org.halvors.nuclearphysics.common.type.EnumAmbientEffect;
 
 @EventBusSubscriber
 public class ThermalEventHandler {
     @SubscribeEvent
     public static void onBoilEvent(final BoilEvent event) {
         World world = event.getWorld();
+
+        // The thermal step posts these on the server thread, only events from anywhere else have to be scheduled.
+        if (world instanceof WorldServer && !((WorldServer) world).isCallingFromMinecraftThread()) {
+            NuclearPhysics.getProxy().addScheduledTask(() -> boil(event), world);
+        } else {
+            boil(event);
+        }
+    }
+
+    private static void boil(final BoilEvent event) {
+        World world = event.getWorld();
         BlockPos pos = event.getPos();
         IBlockState state = world.getBlockState(pos);
 
-        NuclearPhysics.getProxy().addScheduledTask(() -> {
-            // Only boil water blocks.
-            if (state == Blocks.WATER.getDefaultState() || state == Blocks.FLOWING_WATER.getDefaultState()) {
-                // Boil the water into steam.
-                for (int height = 1; height <= event.getMaxSpread(); height++) {
-                    TileEntity tile = world.getTileEntity(pos.up(height));
-
-                    if (tile != null && tile.hasCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN)) {
-                        IBoilHandler boilHandler = tile.getCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN);
-                        FluidStack gasStack = event.getGas(height);
-
-                        if (gasStack.amount > 0 && boilHandler.receiveGas(gasStack, false) > 0) {
-                            gasStack.amount -= boilHandler.receiveGas(gasStack, true);
-                        }
-                    }
-                }
-
-                // Randomly remove water blocks with not in controlled environment like a reactor.
-                if (General.enableBoilingOfWaterBlocks && !event.isReactor() && world.rand.nextInt(1000) == 0) {
-                    world.setBlockToAir(pos);
-                }
-
-                // Sound of lava flowing randomly plays when above temperature to boil water.
-                if (world.rand.nextInt(2000) == 0) {
-                    world.playSound(null, pos, SoundEvents.BLOCK_LAVA_AMBIENT, SoundCategory.BLOCKS, 0.5F, 2.1F + (world.rand.nextFloat() - world.rand.nextFloat()) * 0.85F);
-                }
-
-                // Sounds of lava popping randomly plays when above temperature to boil water.
-                if (world.rand.nextInt(4000) == 0) {
-                    world.playSound(null, pos, SoundEvents.BLOCK_LAVA_POP, SoundCategory.BLOCKS, 0.5F, 2.6F + (world.rand.nextFloat() - world.rand.nextFloat()) * 0.8F);
-                }
-
-                if (world.rand.nextInt(5) == 0) {
-                    ((WorldServer) world).spawnParticle(EnumParticleTypes.WATER_BUBBLE, pos.getX() + world.rand.nextFloat(), pos.getY() + 0.5, pos.getZ() + world.rand.nextFloat(), 0, 0, 1, 0, 0.05);
-                }
-
-                if (world.rand.nextInt(50) == 0) {
-                    ((WorldServer) world).spawnParticle(EnumParticleTypes.CLOUD, pos.getX() + world.rand.nextFloat(), pos.getY() + 1.2, pos.getZ() + world.rand.nextFloat(), 0, 0, 1, 0, 0.1);
-                }
+        // Only boil water blocks.
+        if (state == Blocks.WATER.getDefaultState() || state == Blocks.FLOWING_WATER.getDefaultState()) {
+            // Boil the water into steam, delivered to the boil handlers above at the end of the tick.
+            SteamRouter.addSteam(event);
+
+            // Randomly remove water blocks with not in controlled environment like a reactor.
+            if (General.enableBoilingOfWaterBlocks && !event.isReactor() && world.rand.nextInt(1000) == 0) {
+                world.setBlockToAir(pos);
             }
-        }, world);
+
+            // Bubbles, steam and the sounds of boiling are rolled for by the clients.
+            AmbientEffectAggregator.add(world, pos, EnumAmbientEffect.BOILING);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldTickEvent(final WorldTickEvent event) {
+        if (event.phase == Phase.END && !event.world.isRemote) {
+            SteamRouter.deliver(event.world);
+            AmbientEffectAggregator.send(event.world);
+        }
     }
 
     @SubscribeEvent
@@ -99,47 +93,87 @@ public class ThermalEventHandler {
     }
 
     @SubscribeEvent
-    public static void onThermalUpdateEvent(ThermalUpdateEvent event) {
-        World world = event.getWorld();
-        BlockPos pos = event.getPos();
-        TileEntity tile = world.getTileEntity(pos);
+    public static void onNeighborNotifyEvent(final NeighborNotifyEvent event) {
+        final World world = event.getWorld();
+
+        // A changed block changes how heat flows around it, so wake up any sleeping blocks there.
+        if (!world.isRemote) {
+            ThermalGrid.wake(world, event.getPos());
+            SteamRouter.invalidate(world, event.getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoadEvent(final ChunkEvent.Load event) {
+        final Chunk chunk = event.getChunk();
 
-        if (tile instanceof IElectromagnet) {
-            event.setHeatLoss(event.getDeltaTemperature() * 0.6);
+        // Biomes might have changed while the chunk was unloaded.
+        if (!event.getWorld().isRemote) {
+            AmbientTemperatureCache.invalidate(event.getWorld(), chunk.xPosition, chunk.zPosition);
         }
+    }
 
-        final IBlockState state = world.getBlockState(pos);
+    @SubscribeEvent
+    public static void onChunkUnloadEvent(final ChunkEvent.Unload event) {
+        final Chunk chunk = event.getChunk();
 
-        if (state.getMaterial() == Material.AIR) {
-            event.setHeatLoss(0.15);
+        if (!event.getWorld().isRemote) {
+            AmbientTemperatureCache.invalidate(event.getWorld(), chunk.xPosition, chunk.zPosition);
+            SteamRouter.invalidate(event.getWorld(), chunk.xPosition, chunk.zPosition);
         }
+    }
+
+    @SubscribeEvent
+    public static void onChunkDataSaveEvent(final ChunkDataEvent.Save event) {
+        final Chunk chunk = event.getChunk();
 
-        if (state == Blocks.WATER.getDefaultState() ||
-            state == Blocks.FLOWING_WATER.getDefaultState()) {
-            if (event.getTemperature() >= ThermalPhysics.WATER_BOIL_TEMPERATURE) {
-                double volume = Fluid.BUCKET_VOLUME * (event.getTemperature() / ThermalPhysics.WATER_BOIL_TEMPERATURE) * General.steamOutputMultiplier;
-                MinecraftForge.EVENT_BUS.post(new BoilEvent(world, pos, volume, 2, event.isReactor()));
+        if (!event.getWorld().isRemote) {
+            ThermalGrid.saveChunk(event.getWorld(), chunk.xPosition, chunk.zPosition, event.getData());
 
-                event.setHeatLoss(0.2);
+            // Unloading chunks are saved right after their unload event, only now can their temperatures be dropped.
+            if (!chunk.isLoaded()) {
+                ThermalGrid.unloadChunk(event.getWorld(), chunk.xPosition, chunk.zPosition);
             }
         }
+    }
 
-        if (state == Blocks.ICE.getDefaultState() ||
-            state == Blocks.PACKED_ICE.getDefaultState() ||
-            state == Blocks.SNOW.getDefaultState()) {
-            if (event.getTemperature() >= ThermalPhysics.ICE_MELT_TEMPERATURE) {
-                world.setBlockState(pos, Blocks.FLOWING_WATER.getDefaultState());
-            }
+    @SubscribeEvent
+    public static void onChunkDataLoadEvent(final ChunkDataEvent.Load event) {
+        final Chunk chunk = event.getChunk();
 
-            event.setHeatLoss(0.4);
+        if (!event.getWorld().isRemote) {
+            ThermalGrid.loadChunk(event.getWorld(), chunk.xPosition, chunk.zPosition, event.getData());
         }
+    }
 
-        if (state == Blocks.SNOW_LAYER.getDefaultState()) {
-            if (event.getTemperature() >= ThermalPhysics.ICE_MELT_TEMPERATURE) {
-                world.setBlockToAir(pos);
-            }
+    @SubscribeEvent
+    public static void onWorldUnloadEvent(final WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote) {
+            AmbientTemperatureCache.unload(event.getWorld());
+            SteamRouter.unload(event.getWorld());
+            AmbientEffectAggregator.unload(event.getWorld());
+            ThermalGrid.unloadWorld(event.getWorld());
+        }
+    }
 
-            event.setHeatLoss(0.4);
+    /**
+     * Electromagnets are cooled, so they quickly lose heat.
+     */
+    public static double getElectromagnetHeatLoss(final World world, final BlockPos pos, final double temperature, final double deltaTemperature, final double heatLoss) {
+        return deltaTemperature * 0.6;
+    }
+
+    /**
+     * Water boils into steam when hot enough, feeding any boil handler above it.
+     */
+    public static double getWaterHeatLoss(final World world, final BlockPos pos, final double temperature, final double deltaTemperature, final double heatLoss) {
+        if (temperature >= ThermalPhysics.WATER_BOIL_TEMPERATURE) {
+            final boolean isReactor = SteamRouter.hasBoilHandler(world, pos);
+            final double volume = Fluid.BUCKET_VOLUME * (temperature / ThermalPhysics.WATER_BOIL_TEMPERATURE) * General.steamOutputMultiplier;
+
+            MinecraftForge.EVENT_BUS.post(new BoilEvent(world, pos, volume, 2, isReactor));
         }
+
+        return heatLoss;
     }
 }
@@ -4,6 +4,8 @@ import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.relauncher.Side;
 import org.halvors.nuclearphysics.common.network.PacketHandler;
+import org.halvors.nuclearphysics.common.network.packet.PacketAmbientEffects;
+import org.halvors.nuclearphysics.common.network.packet.PacketAmbientEffects.PacketAmbientEffectsMessage;
 import org.halvors.nuclearphysics.common.network.packet.PacketConfiguration;
 import org.halvors.nuclearphysics.common.network.packet.PacketConfiguration.PacketConfigurationMessage;
 import org.halvors.nuclearphysics.common.network.packet.PacketCreativeBuilder;
@@ -22,6 +24,7 @@ public class ModMessages {
         registerMessage(PacketTileEntityMessage.class, PacketTileEntity.class, Side.CLIENT);
         registerMessage(PacketRedstoneControlMessage.class, PacketRedstoneControl.class, Side.SERVER);
         registerMessage(PacketCreativeBuilderMessage.class, PacketCreativeBuilder.class, Side.SERVER);
+        registerMessage(PacketAmbientEffectsMessage.class, PacketAmbientEffects.class, Side.CLIENT);
     }
 
     private static <REQ extends IMessage, REPLY extends IMessage> void registerMessage(final Class<? extends IMessageHandler<REQ, REPLY>> messageHandler, final Class<REQ> requestMessageType, final Side receivingSide) {
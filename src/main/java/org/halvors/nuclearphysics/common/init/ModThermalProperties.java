@@ -0,0 +1,32 @@
+package org.halvors.nuclearphysics.common.init;
+
+import net.minecraft.init.Blocks;
+import org.halvors.nuclearphysics.api.thermal.ThermalProperties;
+import org.halvors.nuclearphysics.api.thermal.ThermalRegistry;
+import org.halvors.nuclearphysics.api.tile.IElectromagnet;
+import org.halvors.nuclearphysics.common.event.handler.ThermalEventHandler;
+import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+
+public class ModThermalProperties {
+    /**
+     * Register the thermal properties of blocks that behave differently from their material.
+     */
+    public static void registerThermalProperties() {
+        // Water loses more heat while boiling.
+        final ThermalProperties water = new ThermalProperties(0.5, 1, 0.1, ThermalPhysics.WATER_BOIL_TEMPERATURE, null, 0.2);
+        ThermalRegistry.register(Blocks.WATER.getDefaultState(), water);
+        ThermalRegistry.register(Blocks.FLOWING_WATER.getDefaultState(), water);
+
+        // Ice and snow melt.
+        final ThermalProperties ice = new ThermalProperties(1, 1, 0.4, ThermalPhysics.ICE_MELT_TEMPERATURE, Blocks.FLOWING_WATER.getDefaultState(), 0.4);
+        ThermalRegistry.register(Blocks.ICE.getDefaultState(), ice);
+        ThermalRegistry.register(Blocks.PACKED_ICE.getDefaultState(), ice);
+        ThermalRegistry.register(Blocks.SNOW.getDefaultState(), ice);
+        ThermalRegistry.register(Blocks.SNOW_LAYER.getDefaultState(), new ThermalProperties(0.5, 1, 0.4, ThermalPhysics.ICE_MELT_TEMPERATURE, Blocks.AIR.getDefaultState(), 0.4));
+
+        // Handlers for blocks that do more than lose heat.
+        ThermalRegistry.registerHandler(Blocks.WATER.getDefaultState(), ThermalEventHandler::getWaterHeatLoss);
+        ThermalRegistry.registerHandler(Blocks.FLOWING_WATER.getDefaultState(), ThermalEventHandler::getWaterHeatLoss);
+        ThermalRegistry.registerHandler(IElectromagnet.class, ThermalEventHandler::getElectromagnetHeatLoss);
+    }
+}
@@ -18,6 +18,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.halvors.nuclearphysics.common.Reference;
 import org.halvors.nuclearphysics.common.item.block.ItemBlockTooltip;
+import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
 import org.halvors.nuclearphysics.common.type.EnumColor;
 import org.halvors.nuclearphysics.common.utility.InventoryUtility;
 import org.halvors.nuclearphysics.common.utility.LanguageUtility;
@@ -28,6 +29,7 @@ import java.util.List;
 
 public class ItemBlockThermometer extends ItemBlockTooltip {
     private static final String NBT_TRACK_COORDINATE = "trackCoordinate";
+    private static final String NBT_TRACK_AREA_CORNER = "trackAreaCorner";
 
     public static final int energy = 1000;
 
@@ -42,8 +44,13 @@ public class ItemBlockThermometer extends ItemBlockTooltip {
     @SideOnly(Side.CLIENT)
     public void addInformation(@Nonnull ItemStack itemStack, @Nonnull EntityPlayer player, @Nonnull List<String> list, boolean flag) {
         BlockPos pos = getSavedCoordinate(itemStack);
+        BlockPos areaCorner = getSavedAreaCorner(itemStack);
 
-        if (pos != null) {
+        if (pos != null && areaCorner != null) {
+            list.add(LanguageUtility.transelate("tooltip.trackingArea") + ": ");
+            list.add(EnumColor.DARK_GREEN + "X: " + pos.getX() + ", Y: " + pos.getY() + ", Z: " + pos.getZ());
+            list.add(EnumColor.DARK_GREEN + "X: " + areaCorner.getX() + ", Y: " + areaCorner.getY() + ", Z: " + areaCorner.getZ());
+        } else if (pos != null) {
             list.add(LanguageUtility.transelate("tooltip.trackingCoordinate") + ": ");
             list.add(EnumColor.DARK_GREEN + "X: " + pos.getX() + ", Y: " + pos.getY() + ", Z: " + pos.getZ());
         } else {
@@ -68,6 +75,10 @@ public class ItemBlockThermometer extends ItemBlockTooltip {
                 setNbt.setTag(NBT_TRACK_COORDINATE, essentialNBT.getCompoundTag(NBT_TRACK_COORDINATE));
             }
 
+            if (essentialNBT.hasKey(NBT_TRACK_AREA_CORNER)) {
+                setNbt.setTag(NBT_TRACK_AREA_CORNER, essentialNBT.getCompoundTag(NBT_TRACK_AREA_CORNER));
+            }
+
             tile.readFromNBT(setNbt);
         }
 
@@ -79,6 +90,7 @@ public class ItemBlockThermometer extends ItemBlockTooltip {
     public ActionResult<ItemStack> onItemRightClick(@Nonnull ItemStack itemStack, World world, EntityPlayer player, EnumHand hand) {
         if (!world.isRemote) {
             setSavedCoordinate(itemStack, null);
+            setSavedAreaCorner(itemStack, null);
             player.sendMessage(new TextComponentString(EnumColor.DARK_BLUE + "[" + Reference.NAME + "] " + EnumColor.GREY + LanguageUtility.transelate("tooltip.clearedTrackingCoordinate") + "."));
 
             return new ActionResult<>(EnumActionResult.SUCCESS, itemStack);
@@ -101,9 +113,26 @@ public class ItemBlockThermometer extends ItemBlockTooltip {
     public EnumActionResult onItemUse(ItemStack itemStack, @Nonnull EntityPlayer player, World world, @Nonnull BlockPos pos, EnumHand hand, @Nonnull EnumFacing facing, float hitX, float hitY, float hitZ) {
         if (player.isSneaking()) {
             if (!world.isRemote) {
-                setSavedCoordinate(itemStack, pos);
+                final BlockPos savedCoordinate = getSavedCoordinate(itemStack);
+
+                // A second coordinate makes the thermometer track the area between the two.
+                if (savedCoordinate != null && getSavedAreaCorner(itemStack) == null && !savedCoordinate.equals(pos)) {
+                    // Large areas would take too long to read every time the thermometer updates.
+                    if (!ThermalGrid.isRegionAllowed(savedCoordinate, pos)) {
+                        player.sendMessage(new TextComponentString(EnumColor.DARK_BLUE + "[" + Reference.NAME + "] " + EnumColor.GREY + LanguageUtility.transelate("tooltip.areaTooLarge") + ": " + ThermalGrid.MAX_REGION_SIZE));
+
+                        return EnumActionResult.SUCCESS;
+                    }
 
-                player.sendMessage(new TextComponentString(EnumColor.DARK_BLUE + "[" + Reference.NAME + "] " + EnumColor.GREY + LanguageUtility.transelate("tooltip.trackingCoordinate") + ": " + pos.getX() + ", " + pos.getY() + ", " + pos.getZ()));
+                    setSavedAreaCorner(itemStack, pos);
+
+                    player.sendMessage(new TextComponentString(EnumColor.DARK_BLUE + "[" + Reference.NAME + "] " + EnumColor.GREY + LanguageUtility.transelate("tooltip.trackingArea") + ": " + savedCoordinate.getX() + ", " + savedCoordinate.getY() + ", " + savedCoordinate.getZ() + " - " + pos.getX() + ", " + pos.getY() + ", " + pos.getZ()));
+                } else {
+                    setSavedCoordinate(itemStack, pos);
+                    setSavedAreaCorner(itemStack, null);
+
+                    player.sendMessage(new TextComponentString(EnumColor.DARK_BLUE + "[" + Reference.NAME + "] " + EnumColor.GREY + LanguageUtility.transelate("tooltip.trackingCoordinate") + ": " + pos.getX() + ", " + pos.getY() + ", " + pos.getZ()));
+                }
             }
 
             return EnumActionResult.SUCCESS;
@@ -133,4 +162,24 @@ public class ItemBlockThermometer extends ItemBlockTooltip {
             tag.removeTag(NBT_TRACK_COORDINATE);
         }
     }
+
+    public BlockPos getSavedAreaCorner(ItemStack itemStack) {
+        NBTTagCompound tag = InventoryUtility.getNBTTagCompound(itemStack);
+
+        if (tag.hasKey(NBT_TRACK_AREA_CORNER)) {
+            return VectorUtility.readFromNBT(tag.getCompoundTag(NBT_TRACK_AREA_CORNER));
+        }
+
+        return null;
+    }
+
+    public void setSavedAreaCorner(ItemStack itemStack, BlockPos pos) {
+        NBTTagCompound tag = InventoryUtility.getNBTTagCompound(itemStack);
+
+        if (pos != null) {
+            tag.setTag(NBT_TRACK_AREA_CORNER, VectorUtility.writeToNBT(pos, new NBTTagCompound()));
+        } else {
+            tag.removeTag(NBT_TRACK_AREA_CORNER);
+        }
+    }
 }
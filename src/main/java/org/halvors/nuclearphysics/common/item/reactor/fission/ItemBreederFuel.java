@@ -17,4 +17,9 @@ public class ItemBreederFuel extends ItemFuel implements IReactorComponent {
             itemStack.setItemDamage(Math.min(itemStack.getMetadata() + 1, itemStack.getMaxDamage()));
         }
     }
+
+    @Override
+    public void onCatchUp(ItemStack itemStack, IReactor reactor, long ticks, boolean breeding) {
+        itemStack.setItemDamage((int) Math.min(itemStack.getMetadata() + ticks / 20, itemStack.getMaxDamage()));
+    }
 }
\ No newline at end of file
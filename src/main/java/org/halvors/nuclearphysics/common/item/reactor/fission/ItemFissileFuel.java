@@ -1,8 +1,6 @@
 package org.halvors.nuclearphysics.common.item.reactor.fission;
 
 import net.minecraft.item.ItemStack;
-import net.minecraft.tileentity.TileEntity;
-import net.minecraft.util.EnumFacing;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidStack;
 import org.halvors.nuclearphysics.api.item.IReactorComponent;
@@ -20,21 +18,10 @@ public class ItemFissileFuel extends ItemFuel implements IReactorComponent {
 
     @Override
     public void onReact(ItemStack itemStack, IReactor reactor) {
-        TileEntity tile = (TileEntity) reactor;
-        World world = tile.getWorld();
-        int reactors = 0;
-
-        for (EnumFacing side : EnumFacing.values()) {
-            TileEntity checkTile = world.getTileEntity(tile.getPos().offset(side));
-
-            // Check that the other reactors not only exist but also are running.
-            if (checkTile instanceof IReactor && ((IReactor) checkTile).getTemperature() > breedingTemperature) {
-                reactors++;
-            }
-        }
+        World world = reactor.getWorldObject();
 
         // Only three reactor cells are required to begin the uranium breeding machine instead of four.
-        if (reactors >= 3) {
+        if (isBreeding(reactor)) {
             // Breeding - Begin the machine of re-enriching the uranium rod but not consistently.
             if (world.rand.nextInt(1000) <= 100 && reactor.getTemperature() > breedingTemperature) {
                 // Cells can regain a random amount of health per tick.
@@ -57,4 +44,36 @@ public class ItemFissileFuel extends ItemFuel implements IReactorComponent {
             }
         }
     }
+
+    @Override
+    public void onCatchUp(ItemStack itemStack, IReactor reactor, long ticks, boolean breeding) {
+        if (breeding) {
+            // On average one in ten ticks heals two points.
+            long healAmount = ticks * 101 / 1000 * 2;
+
+            itemStack.setItemDamage((int) Math.max(itemStack.getMetadata() - healAmount, 0));
+        } else {
+            // The rod burns until it is spent, losing a point every 20 ticks and creating toxic waste every other tick.
+            long burnTicks = Math.min(ticks, (long) (itemStack.getMaxDamage() - itemStack.getMetadata()) * 20);
+
+            itemStack.setItemDamage((int) (itemStack.getMetadata() + burnTicks / 20));
+
+            if (General.allowToxicWaste && burnTicks >= 2) {
+                reactor.getTank().fillInternal(new FluidStack(ModFluids.toxicWaste, (int) (burnTicks / 2)), true);
+            }
+        }
+    }
+
+    private boolean isBreeding(IReactor reactor) {
+        int reactors = 0;
+
+        for (IReactor neighborReactor : reactor.getNeighborReactors()) {
+            // Check that the other reactors not only exist but also are running.
+            if (neighborReactor.getTemperature() > breedingTemperature) {
+                reactors++;
+            }
+        }
+
+        return reactors >= 3;
+    }
 }
\ No newline at end of file
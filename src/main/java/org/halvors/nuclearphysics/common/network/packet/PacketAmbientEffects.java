@@ -0,0 +1,86 @@
+package org.halvors.nuclearphysics.common.network.packet;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import org.halvors.nuclearphysics.common.NuclearPhysics;
+import org.halvors.nuclearphysics.common.network.PacketHandler;
+import org.halvors.nuclearphysics.common.type.EnumAmbientEffect;
+
+import java.util.Arrays;
+
+/**
+ * This packet carries all ambient effects a player sees during a tick, see AmbientEffectAggregator.
+ */
+public class PacketAmbientEffects implements IMessage {
+    private long[] positions = new long[8];
+    private byte[] effects = new byte[8];
+    private float[] weights = new float[8];
+    private int size;
+
+    public PacketAmbientEffects() {
+
+    }
+
+    public void add(final long pos, final EnumAmbientEffect effect, final float weight) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            effects = Arrays.copyOf(effects, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+
+        positions[size] = pos;
+        effects[size] = (byte) effect.ordinal();
+        weights[size] = weight;
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void fromBytes(final ByteBuf dataStream) {
+        size = dataStream.readInt();
+        positions = new long[size];
+        effects = new byte[size];
+        weights = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            positions[i] = dataStream.readLong();
+            effects[i] = dataStream.readByte();
+            weights[i] = dataStream.readFloat();
+        }
+    }
+
+    @Override
+    public void toBytes(final ByteBuf dataStream) {
+        dataStream.writeInt(size);
+
+        for (int i = 0; i < size; i++) {
+            dataStream.writeLong(positions[i]);
+            dataStream.writeByte(effects[i]);
+            dataStream.writeFloat(weights[i]);
+        }
+    }
+
+    public static class PacketAmbientEffectsMessage implements IMessageHandler<PacketAmbientEffects, IMessage> {
+        @Override
+        public IMessage onMessage(final PacketAmbientEffects message, final MessageContext messageContext) {
+            final World world = PacketHandler.getWorld(messageContext);
+
+            NuclearPhysics.getProxy().addScheduledTask(() -> {
+                final EnumAmbientEffect[] values = EnumAmbientEffect.values();
+
+                for (int i = 0; i < message.size; i++) {
+                    values[message.effects[i]].display(world, BlockPos.fromLong(message.positions[i]), message.weights[i]);
+                }
+            }, world);
+
+            return null;
+        }
+    }
+}
@@ -1,39 +1,118 @@
 package org.halvors.nuclearphysics.common.science.grid;
 
+import org.halvors.nuclearphysics.common.NuclearPhysics;
 import org.halvors.nuclearphysics.common.Reference;
 
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
- * A ticker to update all grids. This is multithreaded.
+ * A ticker to update all grids. Every grid is ticked at its own fixed rate on a small pool of worker threads, which is
+ * started with the server and shut down when it stops.
  */
-public class GridTicker extends Thread {
+public class GridTicker {
     private static final GridTicker instance = new GridTicker();
 
-    // Grids to be ticked.
-    private final Set<IGrid> grids = ConcurrentHashMap.newKeySet();
+    // Grids to be ticked, with their scheduled task while the ticker is running.
+    private final Map<IGrid, GridTask> grids = new ConcurrentHashMap<>();
 
-    private boolean paused = false;
+    private ScheduledExecutorService executor;
+    private volatile boolean paused = false;
 
-    // The time in milliseconds between successive updates.
-    private long deltaTime;
+    public static GridTicker getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts ticking all grids, to be called when a server is starting.
+     *
+     * @param threads - the number of worker threads.
+     */
+    public synchronized void start(final int threads) {
+        if (isRunning()) {
+            return;
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory factory = runnable -> {
+            final Thread thread = new Thread(runnable, Reference.NAME + " Grid Ticker #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+
+            return thread;
+        };
 
-    public GridTicker() {
-        setName(Reference.NAME);
-        setPriority(MIN_PRIORITY);
+        executor = Executors.newScheduledThreadPool(threads, factory);
+
+        for (final GridTask task : grids.values()) {
+            task.schedule(executor);
+        }
     }
 
-    public static GridTicker getInstance() {
-        return instance;
+    /**
+     * Stops ticking and waits shortly for running updates to finish, to be called when a server has stopped.
+     */
+    public synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+
+        executor.shutdownNow();
+
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        executor = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    public synchronized void addGrid(final IGrid grid) {
+        if (!grids.containsKey(grid)) {
+            final GridTask task = new GridTask(grid);
+            grids.put(grid, task);
+
+            if (isRunning()) {
+                task.schedule(executor);
+            }
+        }
+    }
+
+    public void removeGrid(final IGrid grid) {
+        final GridTask task = grids.remove(grid);
+
+        if (task != null) {
+            task.cancel();
+        }
     }
 
-    public void addGrid(final IGrid grid) {
-        grids.add(grid);
+    /**
+     * @return the time in milliseconds between the last two updates of the grid, or 0 if it has not been updated.
+     */
+    public long getDeltaTime(final IGrid grid) {
+        final GridTask task = grids.get(grid);
+
+        return task != null ? TimeUnit.NANOSECONDS.toMillis(task.deltaTime) : 0;
     }
 
-    public long getDeltaTime() {
-        return deltaTime;
+    /**
+     * @return how many milliseconds the last update of the grid started later than its tick rate asks for.
+     */
+    public long getDrift(final IGrid grid) {
+        final GridTask task = grids.get(grid);
+
+        return task != null ? TimeUnit.NANOSECONDS.toMillis(task.drift) : 0;
     }
 
     public int getGridCount() {
@@ -48,31 +127,80 @@ public class GridTicker extends Thread {
         this.paused = paused;
     }
 
-    @Override
-    public void run() {
-        long last = System.currentTimeMillis();
+    private class GridTask implements Runnable {
+        private final IGrid grid;
 
-        while (!paused) {
-            final long current = System.currentTimeMillis();
-            deltaTime = current - last;
+        private ScheduledFuture<?> future;
+        private long tickRate;
+        private long last;
 
-            // Tick all updaters.
-            for (final IGrid grid : grids) {
-                if (grid.canUpdate()) {
-                    grid.update();
-                }
+        // Measured with System.nanoTime(), so they are not affected by changes to the system clock.
+        private volatile long deltaTime;
+        private volatile long drift;
 
-                if (!grid.continueUpdate()) {
-                    grids.remove(grid);
+        GridTask(final IGrid grid) {
+            this.grid = grid;
+        }
+
+        void schedule(final ScheduledExecutorService executor) {
+            schedule(executor, 0);
+        }
+
+        private void schedule(final ScheduledExecutorService executor, final long delay) {
+            tickRate = grid.getTickRate();
+            last = 0;
+            future = executor.scheduleAtFixedRate(this, delay, tickRate, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Schedules the task again at the current tick rate of the grid, unless the grid was removed or the ticker
+         * stopped in the meantime.
+         */
+        private void reschedule() {
+            synchronized (GridTicker.this) {
+                cancel();
+
+                if (isRunning() && grids.get(grid) == this) {
+                    schedule(executor, grid.getTickRate());
                 }
             }
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            // The tick rate of a grid can change with its configuration, a grid must never tick at an old one.
+            if (grid.getTickRate() != tickRate) {
+                reschedule();
+
+                return;
+            }
+
+            final long current = System.nanoTime();
+
+            if (last != 0) {
+                deltaTime = current - last;
+                drift = Math.max(0, deltaTime - TimeUnit.MILLISECONDS.toNanos(tickRate));
+            }
 
             last = current;
 
+            // An exception would stop all further updates of the grid, so log it and keep going instead.
             try {
-                Thread.sleep(50L);
-            } catch (InterruptedException e) {
-                // This means the server has stopped this thread because it is shutting down.
+                if (!paused && grid.canUpdate()) {
+                    grid.update();
+                }
+
+                if (!grid.continueUpdate()) {
+                    removeGrid(grid);
+                }
+            } catch (Exception e) {
+                NuclearPhysics.getLogger().error("An error occurred when updating a grid.", e);
             }
         }
     }
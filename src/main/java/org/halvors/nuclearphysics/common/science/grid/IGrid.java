@@ -6,4 +6,11 @@ public interface IGrid {
     boolean canUpdate();
 
     boolean continueUpdate();
+
+    /**
+     * @return the time in milliseconds between updates of this grid.
+     */
+    default long getTickRate() {
+        return 50;
+    }
 }
@@ -1,91 +1,341 @@
 package org.halvors.nuclearphysics.common.science.grid;
 
-import net.minecraft.block.material.Material;
-import net.minecraft.tileentity.TileEntity;
-import net.minecraft.util.EnumFacing;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraftforge.common.MinecraftForge;
-import org.halvors.nuclearphysics.api.tile.IReactor;
+import net.minecraftforge.common.DimensionManager;
+import org.halvors.nuclearphysics.common.ConfigurationManager.Thermal;
 import org.halvors.nuclearphysics.common.NuclearPhysics;
-import org.halvors.nuclearphysics.common.capabilities.CapabilityBoilHandler;
-import org.halvors.nuclearphysics.common.event.ThermalEvent.ThermalUpdateEvent;
+import org.halvors.nuclearphysics.common.Reference;
+import org.halvors.nuclearphysics.common.science.grid.thermal.DenseThermalKernel;
+import org.halvors.nuclearphysics.common.science.grid.thermal.EnumThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ExplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IHeatSource;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ImplicitThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ParallelThermalSolver;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalRegion;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSimulation;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSnapshot;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
 import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
-import org.halvors.nuclearphysics.common.type.Pair;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/*
+ * Runs the thermal simulation of every loaded dimension, stepping it on the server thread and solving it on the grid
+ * ticker thread when a buffered solver is configured.
+ */
 public class ThermalGrid implements IGrid {
-    private static final Map<Pair<World, BlockPos>, Double> thermalSource = new ConcurrentHashMap<>();
-    private static final double SPREAD = 1D / 7;
-    private static final double DELTA_TIME = 1D / 20;
+    private static final ThermalGrid instance = new ThermalGrid();
+
+    // Simulations per dimension, blocks not present in their storage are at ambient temperature.
+    private static final Map<Integer, ThermalSimulation> thermalSource = new ConcurrentHashMap<>();
+    private static final String NBT_THERMAL = Reference.ID + ":thermal";
+
+    // Longest side of a box getRegion() looks at, anything beyond it is cut off from the far corner.
+    public static final int MAX_REGION_SIZE = 64;
+
+    // The solver used on the grid ticker thread, and the configuration it was built from.
+    private static IThermalSolver solver;
+    private static List<Object> solverConfiguration;
+
+    public static ThermalGrid getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return the solver used on the grid ticker thread, built again whenever the configuration has changed.
+     */
+    private static IThermalSolver getSolver() {
+        final List<Object> configuration = Arrays.asList(Thermal.solver, Thermal.solverThreads, getMinDenseCells(), getTimeStep());
+
+        if (solver == null || !configuration.equals(solverConfiguration)) {
+            stop();
+
+            solver = createSolver();
+            solverConfiguration = configuration;
+        }
+
+        return solver;
+    }
+
+    private static IThermalSolver createSolver() {
+        switch (Thermal.solver) {
+            case PARALLEL:
+                return new ParallelThermalSolver(Thermal.solverThreads, getMinDenseCells());
+
+            case IMPLICIT:
+                return new ImplicitThermalSolver(getTimeStep());
+
+            default:
+                return new ExplicitThermalSolver(getMinDenseCells());
+        }
+    }
+
+    /**
+     * Shuts down the solver and its threads, to be called once the grid ticker has stopped. The next server builds it
+     * again.
+     */
+    public static void stop() {
+        if (solver != null) {
+            solver.shutdown();
+            solver = null;
+        }
+    }
+
+    private static int getMinDenseCells() {
+        return Thermal.denseSectionCells > 0 ? Thermal.denseSectionCells : DenseThermalKernel.DISABLED;
+    }
+
+    /**
+     * @return the number of ticks covered by one thermal step, only the implicit solver stays stable beyond one.
+     */
+    private static int getTimeStep() {
+        return Thermal.solver == EnumThermalSolver.IMPLICIT ? Thermal.timeStepMultiplier : 1;
+    }
+
+    /**
+     * @return the time in nanoseconds a step may take on the server thread, 0 if it is not limited.
+     */
+    private static long getBudget() {
+        return (long) (Thermal.stepBudget * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static ThermalSimulation getSimulation(final World world) {
+        return thermalSource.computeIfAbsent(world.provider.getDimension(), dimension -> {
+            final ThermalStorage storage = new ThermalStorage();
+
+            return new ThermalSimulation(new ThermalWorldAdapter(world, storage), storage, Thermal.sleepThreshold, Thermal.sleepSteps);
+        });
+    }
+
+    private static ThermalStorage getStorage(final World world) {
+        final ThermalSimulation simulation = thermalSource.get(world.provider.getDimension());
+
+        return simulation != null ? simulation.getStorage() : null;
+    }
 
     public static double getDefaultTemperature(final World world, final BlockPos pos) {
         return ThermalPhysics.getTemperatureForCoordinate(world, pos);
     }
 
     public static double getTemperature(final World world, final BlockPos pos) {
-        final Pair<World, BlockPos> key = new Pair<>(world, pos);
+        final ThermalSimulation simulation = thermalSource.get(world.provider.getDimension());
+
+        return simulation != null ? simulation.getTemperature(pos.toLong()) : ThermalPhysics.getTemperatureForCoordinate(world, pos);
+    }
+
+    /**
+     * @return true if the box between the corners is within MAX_REGION_SIZE along every side.
+     */
+    public static boolean isRegionAllowed(final BlockPos from, final BlockPos to) {
+        return Math.abs(from.getX() - to.getX()) < MAX_REGION_SIZE && Math.abs(from.getY() - to.getY()) < MAX_REGION_SIZE && Math.abs(from.getZ() - to.getZ()) < MAX_REGION_SIZE;
+    }
+
+    /**
+     * @return the temperatures of all blocks in the box between the corners, both inclusive and in any order. Sides
+     * longer than MAX_REGION_SIZE are cut down to it.
+     */
+    public static ThermalRegion getRegion(final World world, final BlockPos from, final BlockPos to) {
+        final ThermalStorage storage = getStorage(world);
+        final BlockPos min = new BlockPos(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()), Math.min(from.getZ(), to.getZ()));
+        final BlockPos max = new BlockPos(Math.min(Math.max(from.getX(), to.getX()), min.getX() + MAX_REGION_SIZE - 1), Math.min(Math.max(from.getY(), to.getY()), min.getY() + MAX_REGION_SIZE - 1), Math.min(Math.max(from.getZ(), to.getZ()), min.getZ() + MAX_REGION_SIZE - 1));
 
-        if (thermalSource.containsKey(key)) {
-            return thermalSource.get(key);
+        if (storage != null) {
+            return storage.getRegion(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
         }
 
-        return ThermalPhysics.getTemperatureForCoordinate(world, pos);
+        return new ThermalRegion((long) (max.getX() - min.getX() + 1) * (max.getY() - min.getY() + 1) * (max.getZ() - min.getZ() + 1));
     }
 
     public static void addTemperature(final World world, final BlockPos pos, final double deltaTemperature) {
-        final Pair<World, BlockPos> key = new Pair<>(world, pos);
-        final double defaultTemperature = getDefaultTemperature(world, pos);
-        final double original = thermalSource.getOrDefault(key, defaultTemperature);
-        final double newTemperature = original + deltaTemperature;
-
-        if (Math.abs(newTemperature - defaultTemperature) > 0.4) {
-            thermalSource.put(key, newTemperature);
-        } else {
-            thermalSource.remove(key);
+        getSimulation(world).addTemperature(pos.toLong(), deltaTemperature);
+    }
+
+    /**
+     * Adds a heat source to the simulation of the dimension, it emits its heat at the start of every step.
+     */
+    public static void addHeatSource(final World world, final IHeatSource heatSource) {
+        getSimulation(world).addHeatSource(heatSource);
+    }
+
+    public static void removeHeatSource(final World world, final IHeatSource heatSource) {
+        final ThermalSimulation simulation = thermalSource.get(world.provider.getDimension());
+
+        if (simulation != null) {
+            simulation.removeHeatSource(heatSource);
+        }
+    }
+
+    /**
+     * Wakes the block and its neighbours, to be called when something changed that the grid does not know about.
+     */
+    public static void wake(final World world, final BlockPos pos) {
+        final ThermalStorage storage = getStorage(world);
+
+        if (storage != null) {
+            final long key = pos.toLong();
+
+            // The block might have changed, so its handler has to be looked up again.
+            storage.setHandle(key, null);
+            storage.wakeAround(key);
         }
     }
 
+    public static void saveChunk(final World world, final int chunkX, final int chunkZ, final NBTTagCompound tag) {
+        final ThermalStorage storage = getStorage(world);
+
+        if (storage != null) {
+            final byte[] data = storage.writeChunk(chunkX, chunkZ);
+
+            if (data != null) {
+                tag.setByteArray(NBT_THERMAL, data);
+            }
+        }
+    }
+
+    public static void loadChunk(final World world, final int chunkX, final int chunkZ, final NBTTagCompound tag) {
+        if (tag.hasKey(NBT_THERMAL)) {
+            getSimulation(world).getStorage().readChunk(chunkX, chunkZ, tag.getByteArray(NBT_THERMAL));
+        }
+    }
+
+    public static void unloadChunk(final World world, final int chunkX, final int chunkZ) {
+        final ThermalStorage storage = getStorage(world);
+
+        if (storage != null) {
+            storage.unloadChunk(chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Forgets all temperatures of the dimension, they have been saved with their chunks.
+     */
+    public static void unloadWorld(final World world) {
+        thermalSource.remove(world.provider.getDimension());
+    }
+
+    /**
+     * @return the dimensions that currently have a thermal simulation.
+     */
+    public static Set<Integer> getDimensions() {
+        return thermalSource.keySet();
+    }
+
+    /**
+     * @return the storage of the dimension, or null if nothing in it has been heated.
+     */
+    public static ThermalStorage getStorage(final int dimension) {
+        final ThermalSimulation simulation = thermalSource.get(dimension);
+
+        return simulation != null ? simulation.getStorage() : null;
+    }
+
+    public static int getLastStepCells(final World world) {
+        final ThermalStorage storage = getStorage(world);
+
+        return storage != null ? storage.getLastStepCells() : 0;
+    }
+
+    public static long getLastStepTime(final World world) {
+        final ThermalStorage storage = getStorage(world);
+
+        return storage != null ? storage.getLastStepTime() : 0;
+    }
+
+    /**
+     * Runs one thermal step for all cells in the dimension, must be called from the server thread.
+     */
+    private static void step(final ThermalSimulation simulation) {
+        final ThermalStorage storage = simulation.getStorage();
+        final long start = System.nanoTime();
+        int cells = 0;
+
+        try {
+            // Players move slowly compared to thermal steps, so the level of detail is only updated once a second.
+            if (storage.getStatistics().getSteps() % 20 == 0) {
+                simulation.updateLevelOfDetail(Thermal.lodRadius, Thermal.lodFactor);
+            }
+
+            simulation.emitHeat();
+            simulation.wakeSleepingSections();
+            cells += simulation.stepCoarse(getTimeStep());
+
+            if (Thermal.solver != EnumThermalSolver.SEQUENTIAL) {
+                cells += stepBuffered(simulation);
+            } else {
+                final long sliceStart = System.nanoTime();
+                final long[] slice = simulation.nextSlice(getBudget());
+
+                cells += simulation.stepSequential(slice);
+                simulation.addSliceTime(slice.length, System.nanoTime() - sliceStart);
+            }
+        } finally {
+            storage.finishStep(cells, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Commits the last solved snapshot, if any, and captures the next one to be solved by the grid ticker.
+     *
+     * @return the number of cells processed.
+     */
+    private static int stepBuffered(final ThermalSimulation simulation) {
+        final ThermalStorage storage = simulation.getStorage();
+        final ThermalSnapshot solved = storage.getSnapshot();
+        final long start = System.nanoTime();
+
+        if (solved != null) {
+            // The grid ticker has not finished solving yet, try again next tick.
+            if (!solved.isSolved()) {
+                return 0;
+            }
+
+            simulation.commit(solved);
+        }
+
+        final long[] slice = simulation.nextSlice(getBudget());
+        final ThermalSnapshot snapshot = simulation.capture(slice, getTimeStep());
+        storage.setSnapshot(snapshot.size() > 0 ? snapshot : null);
+        simulation.addSliceTime(slice.length, System.nanoTime() - start);
+
+        return snapshot.size();
+    }
+
     @Override
     public void update() {
-        for (Pair<World, BlockPos> key : thermalSource.keySet()) {
-            final World world = key.getLeft();
-            final BlockPos pos = key.getRight();
-
-            NuclearPhysics.getProxy().addScheduledTask(() -> {
-                // Deal with different block types.
-                final double currentTemperature = getTemperature(world, pos);
-
-                if (currentTemperature < 0) {
-                    thermalSource.remove(key);
-                } else {
-                    final double deltaFromEquilibrium = getDefaultTemperature(world, pos) - currentTemperature;
-                    final TileEntity tile = world.getTileEntity(pos);
-                    final TileEntity tileUp = world.getTileEntity(pos.up());
-                    final boolean isReactor = tile instanceof IReactor || tileUp != null && tileUp.hasCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN);
-
-                    final ThermalUpdateEvent event = new ThermalUpdateEvent(world, pos, currentTemperature, deltaFromEquilibrium, DELTA_TIME, isReactor);
-                    MinecraftForge.EVENT_BUS.post(event);
-
-                    addTemperature(world, pos, (deltaFromEquilibrium > 0 ? 1 : -1) * Math.min(Math.abs(deltaFromEquilibrium), Math.abs(event.getHeatLoss())));
-
-                    // Spread heat to surrounding.
-                    for (EnumFacing side : EnumFacing.values()) {
-                        final BlockPos adjacentPos = pos.offset(side);
-
-                        final double deltaTemperature = getTemperature(world, pos) - getTemperature(world, adjacentPos);
-                        final Material adjacentMaterial = world.getBlockState(adjacentPos).getBlock().getBlockState().getBaseState().getMaterial();
-                        final double deltaSpread = (adjacentMaterial.isSolid() ? SPREAD : SPREAD / 2) * DELTA_TIME;
-
-                        if (deltaTemperature > 0) {
-                            addTemperature(world, adjacentPos, deltaTemperature * deltaSpread);
-                            addTemperature(world, pos, -deltaTemperature * deltaSpread);
-                        }
-                    }
-                }
-            }, world);
+        ThermalStatisticsLogger.update();
+
+        for (final Map.Entry<Integer, ThermalSimulation> entry : thermalSource.entrySet()) {
+            final World world = DimensionManager.getWorld(entry.getKey());
+            final ThermalSimulation simulation = entry.getValue();
+            final ThermalStorage storage = simulation.getStorage();
+            final ThermalSnapshot snapshot = storage.getSnapshot();
+
+            // The dimension is not loaded or nothing in it is above ambient temperature, so there is nothing to simulate.
+            // Sleeping cells still need steps to be woken now and then.
+            if (world == null || storage.size() == 0 && snapshot == null && !storage.hasPendingChunks() && storage.getCoarseSectionCount() == 0 && !simulation.hasHeatSources()) {
+                continue;
+            }
+
+            // Solve diffusion here on the grid ticker thread, the server thread commits the result on its next step.
+            if (snapshot != null && !snapshot.isSolved()) {
+                final long start = System.nanoTime();
+
+                snapshot.setResult(getSolver().solve(snapshot));
+                storage.getStatistics().addSolve(System.nanoTime() - start);
+            }
+
+            // Queue a single batched step per world, and never pile up steps if the server is lagging behind.
+            if (storage.tryScheduleStep()) {
+                NuclearPhysics.getProxy().addScheduledTask(() -> step(simulation), world);
+            }
         }
     }
 
@@ -98,4 +348,12 @@ public class ThermalGrid implements IGrid {
     public boolean continueUpdate() {
         return true;
     }
+
+    /**
+     * Larger time steps are simulated by stepping less often.
+     */
+    @Override
+    public long getTickRate() {
+        return 50L * getTimeStep();
+    }
 }
@@ -0,0 +1,96 @@
+package org.halvors.nuclearphysics.common.science.grid;
+
+import org.halvors.nuclearphysics.common.ConfigurationManager.Thermal;
+import org.halvors.nuclearphysics.common.NuclearPhysics;
+import org.halvors.nuclearphysics.common.Reference;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStatistics;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Reports the statistics of the thermal grid, on demand for the stats command and periodically to a CSV file when
+ * enabled in the configuration. Rows are written from the grid ticker thread, never from the server thread.
+ */
+public class ThermalStatisticsLogger {
+    private static final File FILE = new File("logs", Reference.ID + "-thermal.csv");
+    private static final String HEADER = "time,dimension,cells,awake,sections,coarse_sections,memory_bytes,woken,slept,steps,step_p50_us,step_p99_us,solves,solve_p50_us,solve_p99_us,backlog,carried_over,step_scheduled";
+
+    private static long nextReport = System.nanoTime();
+
+    /**
+     * Writes a row per dimension once the configured interval has passed.
+     */
+    public static void update() {
+        if (Thermal.statisticsInterval <= 0 || System.nanoTime() - nextReport < 0) {
+            return;
+        }
+
+        nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(Thermal.statisticsInterval);
+
+        final boolean header = !FILE.exists();
+
+        try (final PrintWriter writer = new PrintWriter(new FileWriter(FILE, true))) {
+            if (header) {
+                writer.println(HEADER);
+            }
+
+            final long time = System.currentTimeMillis();
+
+            for (final int dimension : ThermalGrid.getDimensions()) {
+                final ThermalStorage storage = ThermalGrid.getStorage(dimension);
+
+                if (storage != null) {
+                    final ThermalStatistics statistics = storage.getStatistics();
+
+                    writer.println(time + "," + dimension + "," + storage.size() + "," + storage.getAwakeSize() + "," + storage.getSectionCount() + "," + storage.getCoarseSectionCount() + "," + storage.getMemoryUsage() + "," +
+                                   statistics.getWoken() + "," + statistics.getSlept() + "," +
+                                   statistics.getSteps() + "," + toMicros(statistics.getStepTime(0.5)) + "," + toMicros(statistics.getStepTime(0.99)) + "," +
+                                   statistics.getSolves() + "," + toMicros(statistics.getSolveTime(0.5)) + "," + toMicros(statistics.getSolveTime(0.99)) + "," +
+                                   statistics.getBacklog() + "," + statistics.getCarriedOver() + "," + storage.isStepScheduled());
+                }
+            }
+        } catch (IOException e) {
+            NuclearPhysics.getLogger().error("Unable to write thermal statistics to " + FILE + ".", e);
+        }
+    }
+
+    /**
+     * @return human readable lines describing the thermal grid.
+     */
+    public static List<String> getReport() {
+        final List<String> lines = new ArrayList<>();
+        final GridTicker ticker = GridTicker.getInstance();
+        final ThermalGrid grid = ThermalGrid.getInstance();
+
+        lines.add(String.format("Grid ticker: %s, %d grids, updated every %d ms, %d ms behind.", ticker.isRunning() ? "running" : "stopped", ticker.getGridCount(), ticker.getDeltaTime(grid), ticker.getDrift(grid)));
+
+        for (final int dimension : ThermalGrid.getDimensions()) {
+            final ThermalStorage storage = ThermalGrid.getStorage(dimension);
+
+            if (storage != null) {
+                final ThermalStatistics statistics = storage.getStatistics();
+
+                lines.add(String.format("Dimension %d: %d cells, %d awake, %d sections, %d coarse sections, %d KiB.", dimension, storage.size(), storage.getAwakeSize(), storage.getSectionCount(), storage.getCoarseSectionCount(), storage.getMemoryUsage() / 1024));
+                lines.add(String.format("  Woken %d, slept %d, %d steps behind, %d cells carried over, step %s.", statistics.getWoken(), statistics.getSlept(), statistics.getBacklog(), statistics.getCarriedOver(), storage.isStepScheduled() ? "queued" : "idle"));
+                lines.add(String.format("  Step p50 %.2f ms, p99 %.2f ms. Solve p50 %.2f ms, p99 %.2f ms.", toMillis(statistics.getStepTime(0.5)), toMillis(statistics.getStepTime(0.99)), toMillis(statistics.getSolveTime(0.5)), toMillis(statistics.getSolveTime(0.99))));
+            }
+        }
+
+        return lines;
+    }
+
+    private static long toMicros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000000D;
+    }
+}
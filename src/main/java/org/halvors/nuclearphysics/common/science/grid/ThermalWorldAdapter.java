@@ -0,0 +1,139 @@
+package org.halvors.nuclearphysics.common.science.grid;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import org.halvors.nuclearphysics.api.thermal.IThermalHandler;
+import org.halvors.nuclearphysics.api.thermal.ThermalProperties;
+import org.halvors.nuclearphysics.api.thermal.ThermalRegistry;
+import org.halvors.nuclearphysics.api.tile.IReactor;
+import org.halvors.nuclearphysics.common.ConfigurationManager.Thermal;
+import org.halvors.nuclearphysics.common.capabilities.CapabilityBoilHandler;
+import org.halvors.nuclearphysics.common.event.ThermalEvent.ThermalUpdateEvent;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IThermalWorld;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalStorage;
+import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+
+/*
+ * Lets the thermal simulation see the blocks of a world, through the ThermalRegistry. Must only be used from the
+ * server thread.
+ */
+public class ThermalWorldAdapter implements IThermalWorld {
+    private final World world;
+    private final ThermalStorage storage;
+
+    // The last looked up block, the simulation asks several questions about the same block in a row.
+    private long cachedKey;
+    private BlockPos cachedPos;
+    private ThermalProperties cachedProperties;
+
+    public ThermalWorldAdapter(final World world, final ThermalStorage storage) {
+        this.world = world;
+        this.storage = storage;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    private BlockPos getPos(final long key) {
+        if (cachedPos == null || cachedKey != key) {
+            cachedKey = key;
+            cachedPos = BlockPos.fromLong(key);
+            cachedProperties = null;
+        }
+
+        return cachedPos;
+    }
+
+    private ThermalProperties getProperties(final long key) {
+        final BlockPos pos = getPos(key);
+
+        if (cachedProperties == null) {
+            cachedProperties = ThermalRegistry.getProperties(world.getBlockState(pos));
+        }
+
+        return cachedProperties;
+    }
+
+    @Override
+    public boolean isLoaded(final long pos) {
+        return world.isBlockLoaded(getPos(pos));
+    }
+
+    @Override
+    public double getAmbientTemperature(final long pos) {
+        return ThermalPhysics.getTemperatureForCoordinate(world, getPos(pos));
+    }
+
+    @Override
+    public double getConductivity(final long pos) {
+        return getProperties(pos).getConductivity();
+    }
+
+    @Override
+    public double getHeatCapacity(final long pos) {
+        return getProperties(pos).getHeatCapacity();
+    }
+
+    @Override
+    public double getHeatLoss(final long key, final double temperature, final double ambientTemperature, final double deltaTime) {
+        final BlockPos pos = getPos(key);
+        final ThermalProperties properties = getProperties(key);
+        final double deltaFromEquilibrium = ambientTemperature - temperature;
+        double heatLoss = getHandler(key, pos).getHeatLoss(world, pos, temperature, deltaFromEquilibrium, properties.getHeatLoss(temperature));
+
+        // Let other mods change the heat loss, this is slow as it posts an event for every block in every step.
+        if (Thermal.postUpdateEvents) {
+            final TileEntity tile = world.getTileEntity(pos);
+            final TileEntity tileUp = world.getTileEntity(pos.up());
+            final boolean isReactor = tile instanceof IReactor || tileUp != null && tileUp.hasCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN);
+
+            final ThermalUpdateEvent event = new ThermalUpdateEvent(world, pos, temperature, deltaFromEquilibrium, deltaTime, isReactor);
+            event.setHeatLoss(heatLoss);
+            MinecraftForge.EVENT_BUS.post(event);
+            heatLoss = event.getHeatLoss();
+        }
+
+        // Melt or otherwise change the block when it reaches its phase change temperature.
+        final IBlockState phaseChangeState = properties.getPhaseChangeState();
+
+        if (phaseChangeState != null && properties.isPhaseChanging(temperature)) {
+            world.setBlockState(pos, phaseChangeState);
+            cachedProperties = null;
+        }
+
+        return heatLoss;
+    }
+
+    @Override
+    public double getObserverDistance(final long key) {
+        final BlockPos pos = getPos(key);
+        double distanceSq = Double.MAX_VALUE;
+
+        for (final EntityPlayer player : world.playerEntities) {
+            distanceSq = Math.min(distanceSq, player.getDistanceSq(pos));
+        }
+
+        return Math.sqrt(distanceSq);
+    }
+
+    /**
+     * @return the thermal handler of the block, only looked up in the registry when the block has changed. It is
+     * cached as the handle of the cell, which the simulation keeps without knowing what it is.
+     */
+    private IThermalHandler getHandler(final long key, final BlockPos pos) {
+        IThermalHandler handler = (IThermalHandler) storage.getHandle(key);
+
+        if (handler == null) {
+            handler = ThermalRegistry.getHandler(world.getBlockState(pos), world.getTileEntity(pos));
+            storage.setHandle(key, handler);
+        }
+
+        return handler;
+    }
+}
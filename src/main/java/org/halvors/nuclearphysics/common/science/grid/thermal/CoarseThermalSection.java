@@ -0,0 +1,145 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * A 16x16x16 block section far away from players, where every cube of factor^3 blocks is simulated as a single cell.
+ *
+ * Every cell keeps the total heat capacity of its blocks and their capacity weighted mean temperature, so the energy
+ * of the section is the same before coarsening and after refining it again.
+ */
+public class CoarseThermalSection {
+    private final int factor;
+    private final int size;
+
+    private final double[] temperatures;
+    private final double[] ambientTemperatures;
+    private final double[] conductivities;
+    private final double[] heatCapacities;
+
+    /**
+     * @param factor - the number of blocks along each side of a cell, must divide 16.
+     */
+    public CoarseThermalSection(final int factor) {
+        this.factor = factor;
+        this.size = ThermalSection.SIZE / factor;
+
+        final int volume = size * size * size;
+        temperatures = new double[volume];
+        ambientTemperatures = new double[volume];
+        conductivities = new double[volume];
+        heatCapacities = new double[volume];
+    }
+
+    public int getFactor() {
+        return factor;
+    }
+
+    /**
+     * @return the number of cells along each side of this section.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getVolume() {
+        return temperatures.length;
+    }
+
+    /**
+     * @return the index of the cell holding the block at the coordinates, only the lowest four bits of them are used.
+     */
+    public int getIndex(final int x, final int y, final int z) {
+        return getCellIndex((x & 15) / factor, (y & 15) / factor, (z & 15) / factor);
+    }
+
+    public int getCellIndex(final int cellX, final int cellY, final int cellZ) {
+        return (cellY * size + cellZ) * size + cellX;
+    }
+
+    public int getCellX(final int index) {
+        return index % size;
+    }
+
+    public int getCellY(final int index) {
+        return index / (size * size);
+    }
+
+    public int getCellZ(final int index) {
+        return index / size % size;
+    }
+
+    public double getTemperature(final int index) {
+        return temperatures[index];
+    }
+
+    public double getAmbientTemperature(final int index) {
+        return ambientTemperatures[index];
+    }
+
+    /**
+     * @return the mean conductivity of the blocks in the cell.
+     */
+    public double getConductivity(final int index) {
+        return conductivities[index];
+    }
+
+    /**
+     * @return the sum of the heat capacities of the blocks in the cell.
+     */
+    public double getHeatCapacity(final int index) {
+        return heatCapacities[index];
+    }
+
+    public void setCell(final int index, final double temperature, final double ambientTemperature, final double conductivity, final double heatCapacity) {
+        temperatures[index] = temperature;
+        ambientTemperatures[index] = ambientTemperature;
+        conductivities[index] = conductivity;
+        heatCapacities[index] = heatCapacity;
+    }
+
+    public void setTemperature(final int index, final double temperature) {
+        temperatures[index] = temperature;
+    }
+
+    /**
+     * Adds heat to the cell, as if a block with the given heat capacity changed its temperature by deltaTemperature.
+     */
+    public void addHeat(final int index, final double deltaTemperature, final double heatCapacity) {
+        temperatures[index] += deltaTemperature * heatCapacity / heatCapacities[index];
+    }
+
+    /**
+     * @param threshold - the difference from ambient temperature that is still considered ambient.
+     */
+    public boolean isAmbient(final int index, final double threshold) {
+        return Math.abs(temperatures[index] - ambientTemperatures[index]) <= threshold;
+    }
+
+    /**
+     * @return whether every cell is at ambient temperature, so the section can be dropped.
+     */
+    public boolean isAmbient(final double threshold) {
+        return getBlockCount(threshold) == 0;
+    }
+
+    /**
+     * @return the number of blocks in cells that are not at ambient temperature.
+     */
+    public int getBlockCount(final double threshold) {
+        int count = 0;
+
+        for (int i = 0; i < temperatures.length; i++) {
+            if (!isAmbient(i, threshold)) {
+                count += factor * factor * factor;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the approximate number of bytes used by the arrays of this section.
+     */
+    public long getMemoryUsage() {
+        return temperatures.length * 4L * Double.BYTES;
+    }
+}
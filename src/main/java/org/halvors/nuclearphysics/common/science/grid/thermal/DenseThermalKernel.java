@@ -0,0 +1,231 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.Arrays;
+
+/*
+ * Explicit heat spreading over a whole 16x16x16 section at once, for sections where most blocks are part of the
+ * snapshot. Cells are copied into flat arrays with a one block border holding the neighbouring sections, so the
+ * 7-point stencil needs no neighbour lookups and no branches, leaving the inner loop free for the JIT to vectorize.
+ *
+ * Follows the exact same arithmetic as ExplicitThermalSolver.solveCell(), so the results are bit-for-bit the same.
+ */
+public class DenseThermalKernel {
+    // Grouping cells by section and gathering them costs about as much as the stencil saves, so it is off by default.
+    public static final int DISABLED = Integer.MAX_VALUE;
+
+    private static final int SIZE = ThermalSection.SIZE;
+    private static final int PADDED_SIZE = SIZE + 2;
+    private static final int PADDED_VOLUME = PADDED_SIZE * PADDED_SIZE * PADDED_SIZE;
+    private static final int STRIDE_Y = PADDED_SIZE * PADDED_SIZE;
+    private static final int STRIDE_Z = PADDED_SIZE;
+
+    // Offsets of the neighbours in the padded arrays, in the same order as ThermalSnapshot.offset().
+    private static final int[] OFFSETS = { -STRIDE_Y, STRIDE_Y, -STRIDE_Z, STRIDE_Z, -1, 1 };
+
+    // Blocks that are not part of the snapshot have no conductivity and are not active, so they never exchange heat.
+    private final double[] temperatures = new double[PADDED_VOLUME];
+    private final double[] conductivities = new double[PADDED_VOLUME];
+    private final double[] active = new double[PADDED_VOLUME];
+    private final double[] heatCapacities = new double[PADDED_VOLUME];
+    private final double[] result = new double[PADDED_VOLUME];
+
+    private static int getPaddedIndex(final long pos) {
+        return ((ThermalStorage.getY(pos) & 15) + 1) * STRIDE_Y + ((ThermalStorage.getZ(pos) & 15) + 1) * STRIDE_Z + (ThermalStorage.getX(pos) & 15) + 1;
+    }
+
+    /**
+     * Finds the sections with enough cells in the snapshot to be solved by the dense kernel.
+     *
+     * @param minCells - the number of snapshot cells a section needs.
+     * @param dense - set for every cell of the returned sections.
+     *
+     * @return the snapshot indices of the cells of every dense section.
+     */
+    public static int[][] getDenseSections(final ThermalSnapshot snapshot, final int minCells, final boolean[] dense) {
+        final int size = snapshot.size();
+
+        if (size < minCells || minCells > SIZE * SIZE * SIZE) {
+            return new int[0][];
+        }
+
+        final LongObjectMap<int[]> counts = new LongObjectMap<>();
+        long cachedKey = 0;
+        int[] cachedCount = null;
+
+        for (int i = 0; i < size; i++) {
+            final long sectionKey = ThermalStorage.getSectionKey(snapshot.getPosition(i));
+
+            if (cachedCount == null || cachedKey != sectionKey) {
+                cachedKey = sectionKey;
+                cachedCount = counts.get(sectionKey);
+
+                if (cachedCount == null) {
+                    cachedCount = new int[2];
+                    counts.put(sectionKey, cachedCount);
+                }
+            }
+
+            cachedCount[0]++;
+        }
+
+        // Number the dense sections, their second element becomes the next free slot in their list of cells.
+        final long[] sectionKeys = counts.keys();
+        final int[][] sections = new int[sectionKeys.length][];
+        int denseCount = 0;
+
+        for (final long sectionKey : sectionKeys) {
+            final int[] count = counts.get(sectionKey);
+
+            if (count[0] >= minCells) {
+                sections[denseCount] = new int[count[0]];
+                count[1] = denseCount++;
+            } else {
+                counts.remove(sectionKey);
+            }
+        }
+
+        if (denseCount == 0) {
+            return new int[0][];
+        }
+
+        final int[] written = new int[denseCount];
+        cachedCount = null;
+
+        for (int i = 0; i < size; i++) {
+            final long sectionKey = ThermalStorage.getSectionKey(snapshot.getPosition(i));
+
+            if (i == 0 || cachedKey != sectionKey) {
+                cachedKey = sectionKey;
+                cachedCount = counts.get(sectionKey);
+            }
+
+            final int[] count = cachedCount;
+
+            if (count != null) {
+                sections[count[1]][written[count[1]]++] = i;
+                dense[i] = true;
+            }
+        }
+
+        return Arrays.copyOf(sections, denseCount);
+    }
+
+    /**
+     * Solves the cells of a single section.
+     *
+     * @param previous - the temperatures after heat loss, indexed like the snapshot.
+     * @param result - receives the new temperatures of the cells.
+     * @param cells - the snapshot indices of the cells in the section.
+     */
+    public void solve(final ThermalSnapshot snapshot, final double[] previous, final double[] result, final int[] cells) {
+        Arrays.fill(temperatures, 0);
+        Arrays.fill(conductivities, 0);
+        Arrays.fill(active, 0);
+        Arrays.fill(heatCapacities, 1);
+
+        for (final int cell : cells) {
+            final long pos = snapshot.getPosition(cell);
+            final int index = getPaddedIndex(pos);
+            gather(snapshot, previous, cell, index);
+
+            // Cells on the border of the section also need their neighbours in the sections around it.
+            final int x = ThermalStorage.getX(pos) & 15;
+            final int y = ThermalStorage.getY(pos) & 15;
+            final int z = ThermalStorage.getZ(pos) & 15;
+
+            if (x == 0 || y == 0 || z == 0 || x == SIZE - 1 || y == SIZE - 1 || z == SIZE - 1) {
+                gatherBorder(snapshot, previous, cell, index, x, y, z);
+            }
+        }
+
+        spread();
+
+        for (final int cell : cells) {
+            result[cell] = this.result[getPaddedIndex(snapshot.getPosition(cell))];
+        }
+    }
+
+    private void gather(final ThermalSnapshot snapshot, final double[] previous, final int cell, final int index) {
+        temperatures[index] = previous[cell];
+        conductivities[index] = snapshot.getConductivity(cell);
+        active[index] = snapshot.isActive(cell) ? 1 : 0;
+        heatCapacities[index] = snapshot.getHeatCapacity(cell);
+    }
+
+    private void gatherBorder(final ThermalSnapshot snapshot, final double[] previous, final int cell, final int index, final int x, final int y, final int z) {
+        for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+            final int neighbor = snapshot.getNeighbor(cell, side);
+
+            if (neighbor >= 0 && isOutside(side, x, y, z)) {
+                gather(snapshot, previous, neighbor, index + OFFSETS[side]);
+            }
+        }
+    }
+
+    /**
+     * @return whether the neighbour on the side of the block lies in another section.
+     */
+    private static boolean isOutside(final int side, final int x, final int y, final int z) {
+        switch (side) {
+            case 0:
+                return y == 0;
+
+            case 1:
+                return y == SIZE - 1;
+
+            case 2:
+                return z == 0;
+
+            case 3:
+                return z == SIZE - 1;
+
+            case 4:
+                return x == 0;
+
+            default:
+                return x == SIZE - 1;
+        }
+    }
+
+    /**
+     * The 7-point stencil, with sides in the same order as ThermalSnapshot.offset(). Runs over the border as well, as
+     * one long loop vectorizes much better than many short rows, the results there are simply never read.
+     */
+    private void spread() {
+        final double[] t = temperatures;
+        final double[] k = conductivities;
+        final double[] a = active;
+        final double[] h = heatCapacities;
+        final double[] r = result;
+
+        for (int i = STRIDE_Y; i < PADDED_VOLUME - STRIDE_Y; i++) {
+            final double temperature = t[i];
+            final double conductivity = k[i];
+            final double isActive = a[i];
+            double delta = 0;
+
+            delta += flow(temperature, conductivity, isActive, t[i - STRIDE_Y], k[i - STRIDE_Y], a[i - STRIDE_Y]);
+            delta += flow(temperature, conductivity, isActive, t[i + STRIDE_Y], k[i + STRIDE_Y], a[i + STRIDE_Y]);
+            delta += flow(temperature, conductivity, isActive, t[i - STRIDE_Z], k[i - STRIDE_Z], a[i - STRIDE_Z]);
+            delta += flow(temperature, conductivity, isActive, t[i + STRIDE_Z], k[i + STRIDE_Z], a[i + STRIDE_Z]);
+            delta += flow(temperature, conductivity, isActive, t[i - 1], k[i - 1], a[i - 1]);
+            delta += flow(temperature, conductivity, isActive, t[i + 1], k[i + 1], a[i + 1]);
+
+            r[i] = temperature + delta / h[i];
+        }
+    }
+
+    /**
+     * Active cells spread heat to colder neighbours and receive it from hotter active ones. At most one of the two
+     * terms is not zero, which keeps the sum identical to the branching version.
+     */
+    private static double flow(final double temperature, final double conductivity, final double isActive, final double neighborTemperature, final double neighborConductivity, final double isNeighborActive) {
+        // Plain comparisons instead of Math.max(), which has to care about NaN and negative zero and is slower.
+        final double in = neighborTemperature - temperature;
+        final double out = temperature - neighborTemperature;
+
+        return isNeighborActive * ((in > 0 ? in : 0) * conductivity) - isActive * ((out > 0 ? out : 0) * neighborConductivity);
+    }
+}
@@ -0,0 +1,48 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public enum EnumThermalSolver {
+    // Updates cells in place on the server thread.
+    SEQUENTIAL("sequential"),
+
+    // Solves diffusion on the grid ticker thread against a snapshot, the server thread only commits the result.
+    BUFFERED("buffered"),
+
+    // Like buffered, but splits the solve over a pool of worker threads.
+    PARALLEL("parallel"),
+
+    // Solves diffusion implicitly on the grid ticker thread, which stays stable with larger time steps.
+    IMPLICIT("implicit");
+
+    private final String name;
+
+    EnumThermalSolver(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static EnumThermalSolver fromName(final String name) {
+        for (EnumThermalSolver solver : values()) {
+            if (solver.getName().equals(name)) {
+                return solver;
+            }
+        }
+
+        return SEQUENTIAL;
+    }
+
+    public static List<String> getNames() {
+        final List<String> names = new ArrayList<>();
+
+        for (EnumThermalSolver solver : values()) {
+            names.add(solver.getName());
+        }
+
+        return names;
+    }
+}
@@ -0,0 +1,79 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * Explicit (forward Euler) heat spreading, the buffered counterpart of the in-place update done by ThermalGrid.
+ *
+ * Every cell gathers its new temperature from the previous buffer only, so the order cells are visited in does not
+ * matter and the result is deterministic. Compared to the in-place update, where a cell already sees the heat its
+ * earlier neighbours spread this step, results differ by at most a fraction of the spread per step.
+ *
+ * Sections with enough cells in the snapshot are solved by the DenseThermalKernel, the rest cell by cell.
+ */
+public class ExplicitThermalSolver implements IThermalSolver {
+    private final int minDenseCells;
+
+    // Reused by every solve, so a solver must only be used by one thread at a time.
+    private final DenseThermalKernel kernel = new DenseThermalKernel();
+
+    public ExplicitThermalSolver() {
+        this(DenseThermalKernel.DISABLED);
+    }
+
+    /**
+     * @param minDenseCells - the number of cells a section needs to be solved by the dense kernel, or
+     *                        DenseThermalKernel.DISABLED.
+     */
+    public ExplicitThermalSolver(final int minDenseCells) {
+        this.minDenseCells = minDenseCells;
+    }
+
+    @Override
+    public double[] solve(final ThermalSnapshot snapshot) {
+        final int size = snapshot.size();
+        final double[] previous = new double[size];
+        final double[] result = new double[size];
+        final boolean[] dense = new boolean[size];
+
+        // Heat loss towards ambient temperature is applied before spreading, just like the in-place update.
+        for (int i = 0; i < size; i++) {
+            previous[i] = snapshot.getTemperature(i) + (snapshot.isActive(i) ? snapshot.getRelaxation(i) : 0);
+        }
+
+        for (final int[] cells : DenseThermalKernel.getDenseSections(snapshot, minDenseCells, dense)) {
+            kernel.solve(snapshot, previous, result, cells);
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (!dense[i]) {
+                result[i] = solveCell(snapshot, previous, i);
+            }
+        }
+
+        return result;
+    }
+
+    static double solveCell(final ThermalSnapshot snapshot, final double[] previous, final int index) {
+        final double temperature = previous[index];
+        final boolean active = snapshot.isActive(index);
+        double delta = 0;
+
+        for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+            final int neighbor = snapshot.getNeighbor(index, side);
+
+            if (neighbor < 0) {
+                continue;
+            }
+
+            final double neighborTemperature = previous[neighbor];
+
+            // Only cells holding a temperature spread heat, and only to colder neighbours.
+            if (active && temperature > neighborTemperature) {
+                delta -= (temperature - neighborTemperature) * snapshot.getConductivity(neighbor);
+            } else if (snapshot.isActive(neighbor) && neighborTemperature > temperature) {
+                delta += (neighborTemperature - temperature) * snapshot.getConductivity(index);
+            }
+        }
+
+        return temperature + delta / snapshot.getHeatCapacity(index);
+    }
+}
@@ -0,0 +1,14 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * Something adding heat to a thermal simulation every step, like a reactor cell.
+ */
+@FunctionalInterface
+public interface IHeatSource {
+    /**
+     * Adds the heat produced since the last step to the simulation.
+     *
+     * @return false once the source is gone, it is then removed from the simulation.
+     */
+    boolean emitHeat(ThermalSimulation simulation);
+}
@@ -0,0 +1,19 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+public interface IThermalSolver {
+    /**
+     * Solves one thermal step without modifying the snapshot, this may be called from any thread.
+     *
+     * @param snapshot - the thermal state to step from.
+     *
+     * @return the new temperature of every cell in the snapshot, in the same order.
+     */
+    double[] solve(ThermalSnapshot snapshot);
+
+    /**
+     * Releases any threads of the solver, it is not used again after this.
+     */
+    default void shutdown() {
+
+    }
+}
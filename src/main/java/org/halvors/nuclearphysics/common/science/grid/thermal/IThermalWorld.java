@@ -0,0 +1,45 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * Everything the thermal simulation needs to know about the blocks it runs on. Positions are packed like
+ * BlockPos.toLong(), neighbours are found with ThermalSnapshot.offset().
+ */
+public interface IThermalWorld {
+    /**
+     * @return whether the block is loaded, heat never spreads into blocks that are not.
+     */
+    boolean isLoaded(long pos);
+
+    /**
+     * @return the temperature the block has when nothing heats or cools it.
+     */
+    double getAmbientTemperature(long pos);
+
+    /**
+     * @return the conductivity of the block relative to a solid block.
+     */
+    double getConductivity(long pos);
+
+    /**
+     * @return the heat capacity of the block relative to a solid block.
+     */
+    double getHeatCapacity(long pos);
+
+    /**
+     * Called once per step for every block holding a temperature, this is where side effects like boiling happen.
+     *
+     * @param temperature - the current temperature of the block.
+     * @param ambientTemperature - the ambient temperature of the block.
+     * @param deltaTime - the time in seconds covered by this step.
+     *
+     * @return the temperature the block loses towards ambient temperature.
+     */
+    double getHeatLoss(long pos, double temperature, double ambientTemperature, double deltaTime);
+
+    /**
+     * @return the distance in blocks to the closest player, blocks far away may be simulated at a lower level of detail.
+     */
+    default double getObserverDistance(long pos) {
+        return 0;
+    }
+}
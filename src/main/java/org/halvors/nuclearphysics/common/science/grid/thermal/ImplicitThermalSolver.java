@@ -0,0 +1,87 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * Implicit (backward Euler) heat spreading, solved with Gauss-Seidel iterations.
+ *
+ * Unlike the explicit solvers, the new temperature of a cell depends on the new temperatures of its neighbours, so heat
+ * can never overshoot and the result stays stable no matter how large the time step is. This allows stepping several
+ * ticks at once. Heat flows both ways over every face touching a cell that holds a temperature, with the conductivity
+ * of the face being the harmonic mean of both cells.
+ */
+public class ImplicitThermalSolver implements IThermalSolver {
+    private static final int MAX_ITERATIONS = 64;
+
+    // Iterating stops once no temperature changes more than this many kelvin.
+    static final double TOLERANCE = 1.0E-4;
+
+    private final double timeStep;
+
+    /**
+     * @param timeStep - the number of explicit steps covered by one solve.
+     */
+    public ImplicitThermalSolver(final double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public double[] solve(final ThermalSnapshot snapshot) {
+        final int size = snapshot.size();
+        final double[] previous = new double[size];
+        final double[] conductances = new double[size * ThermalSnapshot.SIDES];
+        final double[] diagonals = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            previous[i] = snapshot.getTemperature(i) + (snapshot.isActive(i) ? snapshot.getRelaxation(i) : 0);
+            diagonals[i] = snapshot.getHeatCapacity(i);
+
+            for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+                final int neighbor = snapshot.getNeighbor(i, side);
+
+                if (neighbor >= 0 && (snapshot.isActive(i) || snapshot.isActive(neighbor))) {
+                    final double conductance = getConductance(snapshot.getConductivity(i), snapshot.getConductivity(neighbor)) * timeStep;
+
+                    conductances[i * ThermalSnapshot.SIDES + side] = conductance;
+                    diagonals[i] += conductance;
+                }
+            }
+        }
+
+        // Start from the previous temperatures, which are already close to the solution for small steps.
+        final double[] result = previous.clone();
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double maxChange = 0;
+
+            for (int i = 0; i < size; i++) {
+                double sum = snapshot.getHeatCapacity(i) * previous[i];
+
+                for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+                    final double conductance = conductances[i * ThermalSnapshot.SIDES + side];
+
+                    if (conductance > 0) {
+                        sum += conductance * result[snapshot.getNeighbor(i, side)];
+                    }
+                }
+
+                final double temperature = sum / diagonals[i];
+                maxChange = Math.max(maxChange, Math.abs(temperature - result[i]));
+                result[i] = temperature;
+            }
+
+            if (maxChange < TOLERANCE) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the conductivity of the face between two cells, zero if either of them does not conduct.
+     */
+    private static double getConductance(final double conductivity, final double neighborConductivity) {
+        final double sum = conductivity + neighborConductivity;
+
+        return sum > 0 ? 2 * conductivity * neighborConductivity / sum : 0;
+    }
+}
@@ -0,0 +1,150 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Splits the explicit solve over a fork/join pool.
+ *
+ * Cells in a snapshot are sorted by their packed position, so a range of indices is a slab of neighbouring blocks.
+ * Every cell only reads from the shared previous buffer and writes its own result, which means ranges need no halo
+ * exchange and the result is bit-for-bit the same as ExplicitThermalSolver. Dense sections are solved as tasks of
+ * their own.
+ */
+public class ParallelThermalSolver implements IThermalSolver {
+    // Ranges smaller than this are not worth handing to another thread.
+    private static final int MIN_RANGE = 1024;
+
+    private final ForkJoinPool pool;
+    private final int minDenseCells;
+    private final ThreadLocal<DenseThermalKernel> kernels = ThreadLocal.withInitial(DenseThermalKernel::new);
+
+    public ParallelThermalSolver(final int parallelism) {
+        this(parallelism, DenseThermalKernel.DISABLED);
+    }
+
+    /**
+     * @param parallelism - the number of worker threads, or 0 to use all available processors. Workers are daemon
+     *                      threads, so the pool never keeps the server from shutting down, and shutdown() ends them.
+     * @param minDenseCells - the number of cells a section needs to be solved by the dense kernel, or
+     *                        DenseThermalKernel.DISABLED.
+     */
+    public ParallelThermalSolver(final int parallelism, final int minDenseCells) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.minDenseCells = minDenseCells;
+    }
+
+    @Override
+    public double[] solve(final ThermalSnapshot snapshot) {
+        final int size = snapshot.size();
+        final double[] previous = new double[size];
+        final double[] result = new double[size];
+        final boolean[] dense = new boolean[size];
+
+        pool.invoke(new RelaxAction(snapshot, previous, 0, size));
+
+        final List<RecursiveAction> actions = new ArrayList<>();
+        actions.add(new SpreadAction(snapshot, previous, result, dense, 0, size));
+
+        for (final int[] cells : DenseThermalKernel.getDenseSections(snapshot, minDenseCells, dense)) {
+            actions.add(new DenseAction(kernels, snapshot, previous, result, cells));
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(actions);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class RelaxAction extends RecursiveAction {
+        private final ThermalSnapshot snapshot;
+        private final double[] previous;
+        private final int from;
+        private final int to;
+
+        RelaxAction(final ThermalSnapshot snapshot, final double[] previous, final int from, final int to) {
+            this.snapshot = snapshot;
+            this.previous = previous;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MIN_RANGE) {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(new RelaxAction(snapshot, previous, from, middle), new RelaxAction(snapshot, previous, middle, to));
+            } else {
+                for (int i = from; i < to; i++) {
+                    previous[i] = snapshot.getTemperature(i) + (snapshot.isActive(i) ? snapshot.getRelaxation(i) : 0);
+                }
+            }
+        }
+    }
+
+    private static class SpreadAction extends RecursiveAction {
+        private final ThermalSnapshot snapshot;
+        private final double[] previous;
+        private final double[] result;
+        private final boolean[] dense;
+        private final int from;
+        private final int to;
+
+        SpreadAction(final ThermalSnapshot snapshot, final double[] previous, final double[] result, final boolean[] dense, final int from, final int to) {
+            this.snapshot = snapshot;
+            this.previous = previous;
+            this.result = result;
+            this.dense = dense;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MIN_RANGE) {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(new SpreadAction(snapshot, previous, result, dense, from, middle), new SpreadAction(snapshot, previous, result, dense, middle, to));
+            } else {
+                for (int i = from; i < to; i++) {
+                    if (!dense[i]) {
+                        result[i] = ExplicitThermalSolver.solveCell(snapshot, previous, i);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class DenseAction extends RecursiveAction {
+        private final ThreadLocal<DenseThermalKernel> kernels;
+        private final ThermalSnapshot snapshot;
+        private final double[] previous;
+        private final double[] result;
+        private final int[] cells;
+
+        DenseAction(final ThreadLocal<DenseThermalKernel> kernels, final ThermalSnapshot snapshot, final double[] previous, final double[] result, final int[] cells) {
+            this.kernels = kernels;
+            this.snapshot = snapshot;
+            this.previous = previous;
+            this.result = result;
+            this.cells = cells;
+        }
+
+        @Override
+        protected void compute() {
+            kernels.get().solve(snapshot, previous, result, cells);
+        }
+    }
+}
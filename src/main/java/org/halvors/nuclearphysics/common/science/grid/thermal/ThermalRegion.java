@@ -0,0 +1,86 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * The result of a range query on a ThermalStorage, covering only the blocks holding a temperature. Blocks that do
+ * not are at ambient temperature, which the getters taking one account for.
+ */
+public class ThermalRegion {
+    private final long volume;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long minPos;
+    private long maxPos;
+
+    /**
+     * @param volume - the number of blocks in the queried box.
+     */
+    public ThermalRegion(final long volume) {
+        this.volume = volume;
+    }
+
+    void add(final long count, final double sum) {
+        this.count += count;
+        this.sum += sum;
+    }
+
+    void addMin(final double temperature, final long pos) {
+        if (temperature < min) {
+            min = temperature;
+            minPos = pos;
+        }
+    }
+
+    void addMax(final double temperature, final long pos) {
+        if (temperature > max) {
+            max = temperature;
+            maxPos = pos;
+        }
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return the number of blocks holding a temperature.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the packed position of the coldest block holding a temperature, only valid if getCount() is not 0.
+     */
+    public long getMinPos() {
+        return minPos;
+    }
+
+    /**
+     * @return the packed position of the hottest block holding a temperature, only valid if getCount() is not 0.
+     */
+    public long getMaxPos() {
+        return maxPos;
+    }
+
+    public double getMinTemperature(final double ambientTemperature) {
+        return count < volume ? Math.min(min, ambientTemperature) : min;
+    }
+
+    public double getMaxTemperature(final double ambientTemperature) {
+        return count < volume ? Math.max(max, ambientTemperature) : max;
+    }
+
+    public double getAverageTemperature(final double ambientTemperature) {
+        return volume > 0 ? (sum + ambientTemperature * (volume - count)) / volume : ambientTemperature;
+    }
+}
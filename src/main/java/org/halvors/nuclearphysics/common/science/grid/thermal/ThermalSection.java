@@ -0,0 +1,325 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+/*
+ * A 16x16x16 block section of temperatures, only allocated when at least one block in it differs from ambient.
+ */
+public class ThermalSection {
+    public static final int SIZE = 16;
+    public static final int VOLUME = SIZE * SIZE * SIZE;
+
+    // Every bit tells if the temperature at that index is set, 64 indices per long.
+    private final long[] occupancy = new long[VOLUME / Long.SIZE];
+    private final double[] temperatures = new double[VOLUME];
+    private int count;
+
+    // Cells that are updated every step, the rest are asleep until something wakes them.
+    private final long[] awake = new long[VOLUME / Long.SIZE];
+    private int awakeCount;
+
+    // The number of successive steps each cell barely changed.
+    private final byte[] quietSteps = new byte[VOLUME];
+
+    // Whatever the world caches for each cell until it is removed, only allocated once the first one is set.
+    private Object[] handles;
+
+    // Aggregates over all set temperatures, min and max are recalculated when the cell holding them cools or warms.
+    private double sum;
+    private double min;
+    private double max;
+    private int minIndex;
+    private int maxIndex;
+    private boolean boundsChanged;
+
+    public static int getIndex(final int x, final int y, final int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    public static int getX(final int index) {
+        return index & 15;
+    }
+
+    public static int getY(final int index) {
+        return index >> 8 & 15;
+    }
+
+    public static int getZ(final int index) {
+        return index >> 4 & 15;
+    }
+
+    public boolean contains(final int index) {
+        return (occupancy[index >> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * @param index - the index of the block inside this section.
+     *
+     * @return the temperature at the index, or NaN if it is not set.
+     */
+    public double get(final int index) {
+        return contains(index) ? temperatures[index] : Double.NaN;
+    }
+
+    public void set(final int index, final double temperature) {
+        if (!contains(index)) {
+            occupancy[index >> 6] |= 1L << index;
+            count++;
+
+            // New cells always start awake.
+            wake(index);
+
+            if (count == 1) {
+                min = max = temperature;
+                minIndex = maxIndex = index;
+                sum = 0;
+                boundsChanged = false;
+            }
+        } else {
+            sum -= temperatures[index];
+
+            if (index == minIndex && temperature > min || index == maxIndex && temperature < max) {
+                boundsChanged = true;
+            }
+        }
+
+        sum += temperature;
+        temperatures[index] = temperature;
+
+        if (temperature < min) {
+            min = temperature;
+            minIndex = index;
+        }
+
+        if (temperature > max) {
+            max = temperature;
+            maxIndex = index;
+        }
+    }
+
+    public void remove(final int index) {
+        if (contains(index)) {
+            sum -= temperatures[index];
+
+            if (index == minIndex || index == maxIndex) {
+                boundsChanged = true;
+            }
+
+            sleep(index);
+            setHandle(index, null);
+            occupancy[index >> 6] &= ~(1L << index);
+            count--;
+        }
+    }
+
+    /**
+     * @return the sum of all set temperatures.
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the lowest set temperature, or NaN if the section is empty.
+     */
+    public double getMin() {
+        updateBounds();
+
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * @return the highest set temperature, or NaN if the section is empty.
+     */
+    public double getMax() {
+        updateBounds();
+
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * @return the index of the lowest set temperature, only valid if the section is not empty.
+     */
+    public int getMinIndex() {
+        updateBounds();
+
+        return minIndex;
+    }
+
+    /**
+     * @return the index of the highest set temperature, only valid if the section is not empty.
+     */
+    public int getMaxIndex() {
+        updateBounds();
+
+        return maxIndex;
+    }
+
+    private void updateBounds() {
+        if (!boundsChanged) {
+            return;
+        }
+
+        // Recalculate the sum as well, so rounding errors from adding and subtracting do not build up.
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sum = 0;
+
+        for (int word = 0; word < occupancy.length; word++) {
+            long bits = occupancy[word];
+
+            while (bits != 0) {
+                final int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                final double temperature = temperatures[index];
+
+                if (temperature < min) {
+                    min = temperature;
+                    minIndex = index;
+                }
+
+                if (temperature > max) {
+                    max = temperature;
+                    maxIndex = index;
+                }
+
+                sum += temperature;
+                bits &= bits - 1;
+            }
+        }
+
+        boundsChanged = false;
+    }
+
+    public boolean isAwake(final int index) {
+        return (awake[index >> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * @return true if the cell was asleep.
+     */
+    public boolean wake(final int index) {
+        if (!contains(index) || isAwake(index)) {
+            return false;
+        }
+
+        awake[index >> 6] |= 1L << index;
+        awakeCount++;
+        quietSteps[index] = 0;
+
+        return true;
+    }
+
+    /**
+     * Wakes every cell of the section.
+     *
+     * @return the number of cells that were asleep.
+     */
+    public int wakeAll() {
+        final int woken = count - awakeCount;
+
+        if (woken > 0) {
+            System.arraycopy(occupancy, 0, awake, 0, awake.length);
+            awakeCount = count;
+        }
+
+        return woken;
+    }
+
+    public void sleep(final int index) {
+        quietSteps[index] = 0;
+
+        if (isAwake(index)) {
+            awake[index >> 6] &= ~(1L << index);
+            awakeCount--;
+        }
+    }
+
+    /**
+     * Counts another step in which the cell barely changed.
+     *
+     * @return the number of successive quiet steps.
+     */
+    public int addQuietStep(final int index) {
+        if (quietSteps[index] < Byte.MAX_VALUE) {
+            quietSteps[index]++;
+        }
+
+        return quietSteps[index];
+    }
+
+    public void resetQuietSteps(final int index) {
+        quietSteps[index] = 0;
+    }
+
+    /**
+     * @return the handle cached for the cell, or null if none is set.
+     */
+    public Object getHandle(final int index) {
+        return handles != null ? handles[index] : null;
+    }
+
+    public void setHandle(final int index, final Object handle) {
+        if (handles == null) {
+            if (handle == null) {
+                return;
+            }
+
+            handles = new Object[VOLUME];
+        }
+
+        handles[index] = handle;
+    }
+
+    /**
+     * @return the approximate number of bytes used by the arrays of this section.
+     */
+    public long getMemoryUsage() {
+        final long usage = (occupancy.length + awake.length) * Long.BYTES + temperatures.length * Double.BYTES + quietSteps.length;
+
+        // Assumes compressed references.
+        return handles != null ? usage + handles.length * Integer.BYTES : usage;
+    }
+
+    public int getAwakeCount() {
+        return awakeCount;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Writes the indices of all set temperatures into the given array.
+     *
+     * @param indices - an array with room for at least size() elements.
+     *
+     * @return the number of indices written.
+     */
+    public int getIndices(final int[] indices) {
+        return getIndices(occupancy, indices);
+    }
+
+    /**
+     * Like getIndices(), but only for cells that are awake.
+     */
+    public int getAwakeIndices(final int[] indices) {
+        return getIndices(awake, indices);
+    }
+
+    private static int getIndices(final long[] bitmap, final int[] indices) {
+        int written = 0;
+
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+
+            while (bits != 0) {
+                indices[written++] = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+
+        return written;
+    }
+}
@@ -0,0 +1,651 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * The thermal simulation of a single dimension, independent of Minecraft. Blocks are only seen through an
+ * IThermalWorld, so the same code runs in game, in benchmarks and in headless simulations.
+ */
+public class ThermalSimulation {
+    private static final double SPREAD = 1D / 7;
+
+    // The time in seconds covered by a single step.
+    public static final double DELTA_TIME = 1D / 20;
+
+    // Temperatures this close to ambient temperature are not stored.
+    static final double AMBIENT_THRESHOLD = 0.4;
+
+    // The fewest cells stepped at once, so a tight time budget still makes progress.
+    private static final int MIN_SLICE = 256;
+
+    // Steps between two times a section is woken by wakeSleepingSections().
+    private static final int WAKE_INTERVAL = 200;
+
+    private final IThermalWorld world;
+    private final ThermalStorage storage;
+    private final double sleepThreshold;
+    private final int sleepSteps;
+
+    private final List<IHeatSource> heatSources = new CopyOnWriteArrayList<>();
+
+    // The number of calls to stepCoarse(), coarse sections are only stepped every factor steps.
+    private long coarseSteps;
+
+    // The awake cells of the current round, those past roundIndex carry over to the next steps.
+    private long[] round = new long[0];
+    private int roundIndex;
+
+    // The average time in nanoseconds a step spends per cell, used to size slices to the time budget.
+    private double cellTime = 10000;
+
+    // The sections of the current round of wakeSleepingSections(), those past wakeIndex are still to be woken.
+    private long[] wakeRound = new long[0];
+    private int wakeIndex;
+    private int wakeStep;
+
+    /**
+     * @param sleepThreshold - blocks changing less than this many kelvin per step are considered stable.
+     * @param sleepSteps - the number of successive stable steps before a block is put to sleep.
+     */
+    public ThermalSimulation(final IThermalWorld world, final ThermalStorage storage, final double sleepThreshold, final int sleepSteps) {
+        this.world = world;
+        this.storage = storage;
+        this.sleepThreshold = sleepThreshold;
+        this.sleepSteps = sleepSteps;
+    }
+
+    public IThermalWorld getWorld() {
+        return world;
+    }
+
+    public ThermalStorage getStorage() {
+        return storage;
+    }
+
+    public void addHeatSource(final IHeatSource heatSource) {
+        heatSources.add(heatSource);
+    }
+
+    public void removeHeatSource(final IHeatSource heatSource) {
+        heatSources.remove(heatSource);
+    }
+
+    public boolean hasHeatSources() {
+        return !heatSources.isEmpty();
+    }
+
+    public double getTemperature(final long pos) {
+        final CoarseThermalSection coarseSection = getCoarseSection(pos);
+
+        if (coarseSection != null) {
+            return coarseSection.getTemperature(getCoarseIndex(coarseSection, pos));
+        }
+
+        final double temperature = storage.get(pos);
+
+        return Double.isNaN(temperature) ? world.getAmbientTemperature(pos) : temperature;
+    }
+
+    /**
+     * Adds heat from outside of the simulation, this always wakes the block.
+     */
+    public void addTemperature(final long pos, final double deltaTemperature) {
+        addTemperature(pos, deltaTemperature, world.getAmbientTemperature(pos));
+        storage.wake(pos);
+    }
+
+    private void addTemperature(final long pos, final double deltaTemperature, final double ambientTemperature) {
+        final CoarseThermalSection coarseSection = getCoarseSection(pos);
+
+        // Heat added to a coarse section is spread over the whole cell holding the block.
+        if (coarseSection != null) {
+            coarseSection.addHeat(getCoarseIndex(coarseSection, pos), deltaTemperature, world.getHeatCapacity(pos));
+
+            return;
+        }
+
+        final double stored = storage.get(pos);
+        final double original = Double.isNaN(stored) ? ambientTemperature : stored;
+        final double newTemperature = original + deltaTemperature;
+
+        if (Math.abs(newTemperature - ambientTemperature) > AMBIENT_THRESHOLD) {
+            storage.set(pos, newTemperature);
+
+            // Sleeping blocks only wake up when they receive a significant amount of heat.
+            if (Math.abs(deltaTemperature) > sleepThreshold) {
+                storage.wake(pos);
+            }
+        } else {
+            storage.remove(pos);
+        }
+    }
+
+    /**
+     * Lets all heat sources add their heat.
+     */
+    public void emitHeat() {
+        for (final IHeatSource heatSource : heatSources) {
+            if (!heatSource.emitHeat(this)) {
+                heatSources.remove(heatSource);
+            }
+        }
+    }
+
+    /**
+     * @return the fraction of a temperature difference a block receives from a hotter neighbour each step.
+     */
+    private double getSpread(final long pos) {
+        return SPREAD * world.getConductivity(pos) * DELTA_TIME;
+    }
+
+    /**
+     * @param timeStep - the number of steps covered by this one.
+     *
+     * @return the temperature change towards ambient temperature caused by heat loss.
+     */
+    private double getRelaxation(final long pos, final double temperature, final double ambientTemperature, final int timeStep) {
+        final double deltaFromEquilibrium = ambientTemperature - temperature;
+        final double heatLoss = world.getHeatLoss(pos, temperature, ambientTemperature, DELTA_TIME * timeStep);
+
+        return (deltaFromEquilibrium > 0 ? 1 : -1) * Math.min(Math.abs(deltaFromEquilibrium), Math.abs(heatLoss) * timeStep);
+    }
+
+    /**
+     * Takes the next awake cells to be stepped, continuing where the last slice left off. A new round over all awake
+     * cells starts once every cell of the current one has been stepped.
+     *
+     * @param budget - the time in nanoseconds the step may take, 0 takes the rest of the round.
+     *
+     * @return the packed positions.
+     */
+    public long[] nextSlice(final long budget) {
+        if (roundIndex >= round.length) {
+            round = storage.getAwakePositions();
+            roundIndex = 0;
+        }
+
+        final int remaining = round.length - roundIndex;
+        final int count = budget > 0 ? (int) Math.min(remaining, Math.max(MIN_SLICE, budget / cellTime)) : remaining;
+        final long[] slice = Arrays.copyOfRange(round, roundIndex, roundIndex + count);
+
+        roundIndex += count;
+        storage.getStatistics().setCarriedOver(round.length - roundIndex);
+
+        return slice;
+    }
+
+    /**
+     * Wakes the next share of sections, so that every section is woken once every WAKE_INTERVAL calls. Sleeping cells
+     * neither lose heat nor notice the ambient temperature changing, this lets them catch up and go back to sleep if
+     * they are still stable. To be called once per step.
+     */
+    public void wakeSleepingSections() {
+        if (wakeStep == 0) {
+            wakeRound = storage.getSectionKeys();
+            wakeIndex = 0;
+        }
+
+        // A round is spread evenly over WAKE_INTERVAL calls.
+        wakeStep++;
+        final int end = (int) ((long) wakeRound.length * wakeStep / WAKE_INTERVAL);
+
+        for (; wakeIndex < end; wakeIndex++) {
+            storage.wakeSection(wakeRound[wakeIndex]);
+        }
+
+        if (wakeStep == WAKE_INTERVAL) {
+            wakeStep = 0;
+        }
+    }
+
+    /**
+     * Records the time spent stepping a slice, so that the next slices fit the time budget.
+     */
+    public void addSliceTime(final int cells, final long time) {
+        if (cells > 0) {
+            cellTime = cellTime * 0.9 + (double) time / cells * 0.1;
+        }
+    }
+
+    /**
+     * Runs one step updating every awake block in place.
+     *
+     * @return the number of blocks updated.
+     */
+    public int stepSequential() {
+        return stepSequential(storage.getAwakePositions());
+    }
+
+    /**
+     * Runs one step updating the given blocks in place, blocks that went to sleep in the meantime are skipped.
+     *
+     * @return the number of blocks updated.
+     */
+    public int stepSequential(final long[] positions) {
+        final double[] previous = new double[positions.length];
+
+        for (int i = 0; i < positions.length; i++) {
+            previous[i] = storage.get(positions[i]);
+        }
+
+        for (final long pos : positions) {
+            if (storage.isAwake(pos)) {
+                updateCell(pos);
+            }
+        }
+
+        for (int i = 0; i < positions.length; i++) {
+            final double temperature = storage.get(positions[i]);
+
+            if (!Double.isNaN(temperature)) {
+                storage.updateSleep(positions[i], Math.abs(temperature - previous[i]) <= sleepThreshold, sleepSteps);
+            }
+        }
+
+        return positions.length;
+    }
+
+    private void updateCell(final long pos) {
+        final double currentTemperature = getTemperature(pos);
+
+        if (currentTemperature < 0) {
+            storage.remove(pos);
+
+            return;
+        }
+
+        final double ambientTemperature = world.getAmbientTemperature(pos);
+        final double heatCapacity = world.getHeatCapacity(pos);
+
+        addTemperature(pos, getRelaxation(pos, currentTemperature, ambientTemperature, 1), ambientTemperature);
+
+        // Spread heat to surrounding.
+        for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+            final long adjacentPos = ThermalSnapshot.offset(pos, side);
+
+            // Never load chunks, heat does not spread into unloaded ones.
+            if (!world.isLoaded(adjacentPos)) {
+                continue;
+            }
+
+            final double deltaTemperature = getTemperature(pos) - getTemperature(adjacentPos);
+            final double deltaSpread = getSpread(adjacentPos);
+
+            if (deltaTemperature > 0) {
+                addTemperature(adjacentPos, deltaTemperature * deltaSpread / world.getHeatCapacity(adjacentPos), world.getAmbientTemperature(adjacentPos));
+                addTemperature(pos, -deltaTemperature * deltaSpread / heatCapacity, ambientTemperature);
+            }
+        }
+    }
+
+    /**
+     * Runs one step by capturing, solving and committing a snapshot right away.
+     *
+     * @return the number of cells in the snapshot.
+     */
+    public int step(final IThermalSolver solver, final int timeStep) {
+        final ThermalSnapshot snapshot = capture(timeStep);
+        snapshot.setResult(solver.solve(snapshot));
+        commit(snapshot);
+
+        return snapshot.size();
+    }
+
+    /**
+     * Copies the current temperatures and block properties of all awake cells and their neighbours, calling the
+     * heat loss of every cell holding a temperature.
+     *
+     * @param timeStep - the number of steps the snapshot will be solved for.
+     */
+    public ThermalSnapshot capture(final int timeStep) {
+        return capture(storage.getAwakePositions(), timeStep);
+    }
+
+    /**
+     * Like capture(), but only the given cells lose and spread heat, their neighbours only receive it.
+     *
+     * @param positions - the packed positions of the cells to step.
+     */
+    public ThermalSnapshot capture(final long[] positions, final int timeStep) {
+        final ThermalSnapshot snapshot = new ThermalSnapshot(positions);
+        final boolean[] stepped = new boolean[snapshot.size()];
+
+        for (final long pos : positions) {
+            stepped[snapshot.indexOf(pos)] = true;
+        }
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            final long pos = snapshot.getPosition(i);
+
+            // Never load chunks, neighbours in unloaded ones do not take part in the step.
+            if (!world.isLoaded(pos)) {
+                snapshot.setCell(i, 0, 0, 0, 1, 0, false);
+
+                continue;
+            }
+
+            final double ambientTemperature = world.getAmbientTemperature(pos);
+            final double conductivity = getSpread(pos);
+            final double heatCapacity = world.getHeatCapacity(pos);
+            final CoarseThermalSection coarseSection = getCoarseSection(pos);
+
+            // Coarse cells only receive heat here, they lose and spread their own heat in stepCoarse().
+            if (coarseSection != null) {
+                snapshot.setCell(i, coarseSection.getTemperature(getCoarseIndex(coarseSection, pos)), ambientTemperature, conductivity, heatCapacity, 0, false);
+
+                continue;
+            }
+
+            final double temperature = storage.get(pos);
+
+            if (Double.isNaN(temperature) || temperature < 0) {
+                storage.remove(pos);
+                snapshot.setCell(i, ambientTemperature, ambientTemperature, conductivity, heatCapacity, 0, false);
+            } else if (!stepped[i] || !storage.isAwake(pos)) {
+                // Sleeping neighbours keep their temperature and receive heat, but do not lose or spread any.
+                snapshot.setCell(i, temperature, ambientTemperature, conductivity, heatCapacity, 0, false);
+            } else {
+                snapshot.setCell(i, temperature, ambientTemperature, conductivity, heatCapacity, getRelaxation(pos, temperature, ambientTemperature, timeStep), true);
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Applies the solved temperature changes to the storage. Changes are added rather than copied, so heat added while
+     * the snapshot was being solved is kept.
+     */
+    public void commit(final ThermalSnapshot snapshot) {
+        final double[] result = snapshot.getResult();
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            final long pos = snapshot.getPosition(i);
+            final double deltaTemperature = result[i] - snapshot.getTemperature(i);
+
+            if (deltaTemperature != 0) {
+                addTemperature(pos, deltaTemperature, snapshot.getAmbientTemperature(i));
+            }
+
+            if (snapshot.isActive(i)) {
+                storage.updateSleep(pos, Math.abs(deltaTemperature) <= sleepThreshold, sleepSteps);
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private CoarseThermalSection getCoarseSection(final long pos) {
+        return storage.getCoarseSection(ThermalStorage.getSectionKey(pos));
+    }
+
+    private static int getCoarseIndex(final CoarseThermalSection coarseSection, final long pos) {
+        return coarseSection.getIndex(ThermalStorage.getX(pos), ThermalStorage.getY(pos), ThermalStorage.getZ(pos));
+    }
+
+    private double getObserverDistance(final long sectionKey) {
+        return world.getObserverDistance(ThermalStorage.pack(ThermalStorage.getX(sectionKey) << 4 | 8, ThermalStorage.getY(sectionKey) << 4 | 8, ThermalStorage.getZ(sectionKey) << 4 | 8));
+    }
+
+    /**
+     * Coarsens the sections further away from players than the radius, and refines coarse sections players came close
+     * to again.
+     *
+     * @param radius - the distance in blocks, 0 refines every coarse section.
+     * @param factor - the number of blocks along each side of a coarse cell, 2 or 4.
+     */
+    public void updateLevelOfDetail(final int radius, final int factor) {
+        for (final long sectionKey : storage.getCoarseSectionKeys()) {
+            final CoarseThermalSection coarseSection = storage.getCoarseSection(sectionKey);
+
+            // Refine a bit within the radius, so that sections on the edge do not keep switching back and forth.
+            if (radius <= 0 || coarseSection.getFactor() != factor || getObserverDistance(sectionKey) < radius - ThermalSection.SIZE) {
+                refine(sectionKey, coarseSection);
+            }
+        }
+
+        if (radius > 0) {
+            final long[] solvingSections = getSolvingSections();
+
+            for (final long sectionKey : storage.getSectionKeys()) {
+                // The heat loss of cells in the snapshot being solved is already part of it, coarse sections would lose
+                // it a second time in stepCoarse(). They are coarsened once the snapshot has been committed.
+                if (getObserverDistance(sectionKey) > radius && Arrays.binarySearch(solvingSections, sectionKey) < 0) {
+                    coarsen(sectionKey, factor);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the sorted keys of the sections holding cells stepped by the snapshot being solved.
+     */
+    private long[] getSolvingSections() {
+        final ThermalSnapshot snapshot = storage.getSnapshot();
+
+        if (snapshot == null) {
+            return new long[0];
+        }
+
+        final long[] sectionKeys = new long[snapshot.size()];
+        int count = 0;
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isActive(i)) {
+                sectionKeys[count++] = ThermalStorage.getSectionKey(snapshot.getPosition(i));
+            }
+        }
+
+        final long[] sorted = Arrays.copyOf(sectionKeys, count);
+        Arrays.sort(sorted);
+
+        return sorted;
+    }
+
+    /**
+     * Replaces the cells of a section by coarse cells holding the same energy.
+     */
+    private void coarsen(final long sectionKey, final int factor) {
+        final CoarseThermalSection coarseSection = new CoarseThermalSection(factor);
+        final int baseX = ThermalStorage.getX(sectionKey) << 4;
+        final int baseY = ThermalStorage.getY(sectionKey) << 4;
+        final int baseZ = ThermalStorage.getZ(sectionKey) << 4;
+
+        for (int index = 0; index < coarseSection.getVolume(); index++) {
+            final int cellX = baseX + coarseSection.getCellX(index) * factor;
+            final int cellY = baseY + coarseSection.getCellY(index) * factor;
+            final int cellZ = baseZ + coarseSection.getCellZ(index) * factor;
+            double heatCapacity = 0;
+            double energy = 0;
+            double ambientEnergy = 0;
+            double conductivity = 0;
+
+            for (int y = cellY; y < cellY + factor; y++) {
+                for (int z = cellZ; z < cellZ + factor; z++) {
+                    for (int x = cellX; x < cellX + factor; x++) {
+                        final long pos = ThermalStorage.pack(x, y, z);
+                        final double blockHeatCapacity = world.getHeatCapacity(pos);
+                        final double ambientTemperature = world.getAmbientTemperature(pos);
+                        final double temperature = storage.get(pos);
+
+                        heatCapacity += blockHeatCapacity;
+                        energy += blockHeatCapacity * (Double.isNaN(temperature) ? ambientTemperature : temperature);
+                        ambientEnergy += blockHeatCapacity * ambientTemperature;
+                        conductivity += world.getConductivity(pos);
+                    }
+                }
+            }
+
+            coarseSection.setCell(index, energy / heatCapacity, ambientEnergy / heatCapacity, conductivity / (factor * factor * factor), heatCapacity);
+        }
+
+        storage.removeSection(sectionKey);
+        storage.setCoarseSection(sectionKey, coarseSection);
+    }
+
+    /**
+     * Replaces the coarse cells of a section by blocks, each keeping its offset from ambient temperature.
+     */
+    private void refine(final long sectionKey, final CoarseThermalSection coarseSection) {
+        final int baseX = ThermalStorage.getX(sectionKey) << 4;
+        final int baseY = ThermalStorage.getY(sectionKey) << 4;
+        final int baseZ = ThermalStorage.getZ(sectionKey) << 4;
+
+        storage.setCoarseSection(sectionKey, null);
+
+        for (int index = 0; index < ThermalSection.VOLUME; index++) {
+            final int x = baseX + ThermalSection.getX(index);
+            final int y = baseY + ThermalSection.getY(index);
+            final int z = baseZ + ThermalSection.getZ(index);
+            final int cell = coarseSection.getIndex(x, y, z);
+
+            if (!coarseSection.isAmbient(cell, AMBIENT_THRESHOLD)) {
+                final long pos = ThermalStorage.pack(x, y, z);
+
+                storage.set(pos, world.getAmbientTemperature(pos) + coarseSection.getTemperature(cell) - coarseSection.getAmbientTemperature(cell));
+            }
+        }
+    }
+
+    /**
+     * Steps the coarse sections, each of them only every factor steps but covering as many steps at once.
+     *
+     * @param timeStep - the number of steps covered by a single step.
+     *
+     * @return the number of coarse cells updated.
+     */
+    public int stepCoarse(final int timeStep) {
+        final long[] sectionKeys = storage.getCoarseSectionKeys();
+        final long step = coarseSteps++;
+        int cells = 0;
+
+        for (final long sectionKey : sectionKeys) {
+            final CoarseThermalSection coarseSection = storage.getCoarseSection(sectionKey);
+
+            if (step % coarseSection.getFactor() == 0) {
+                cells += stepCoarse(sectionKey, coarseSection, coarseSection.getFactor() * timeStep);
+
+                // Forget sections that have cooled down completely.
+                if (coarseSection.isAmbient(AMBIENT_THRESHOLD)) {
+                    storage.setCoarseSection(sectionKey, null);
+                }
+            }
+        }
+
+        return cells;
+    }
+
+    private int stepCoarse(final long sectionKey, final CoarseThermalSection coarseSection, final int timeStep) {
+        final int factor = coarseSection.getFactor();
+        final int size = coarseSection.getSize();
+        final int baseX = ThermalStorage.getX(sectionKey) << 4;
+        final int baseY = ThermalStorage.getY(sectionKey) << 4;
+        final int baseZ = ThermalStorage.getZ(sectionKey) << 4;
+        int cells = 0;
+
+        for (int index = 0; index < coarseSection.getVolume(); index++) {
+            if (coarseSection.isAmbient(index, AMBIENT_THRESHOLD)) {
+                continue;
+            }
+
+            final int cellX = coarseSection.getCellX(index);
+            final int cellY = coarseSection.getCellY(index);
+            final int cellZ = coarseSection.getCellZ(index);
+            final long pos = ThermalStorage.pack(baseX + cellX * factor, baseY + cellY * factor, baseZ + cellZ * factor);
+
+            // The heat loss of the whole cell is that of its lowest corner, which is also where side effects happen.
+            coarseSection.setTemperature(index, coarseSection.getTemperature(index) + getRelaxation(pos, coarseSection.getTemperature(index), coarseSection.getAmbientTemperature(index), timeStep));
+
+            for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+                final int adjacentX = cellX + ThermalStorage.getX(ThermalSnapshot.offset(0, side));
+                final int adjacentY = cellY + ThermalStorage.getY(ThermalSnapshot.offset(0, side));
+                final int adjacentZ = cellZ + ThermalStorage.getZ(ThermalSnapshot.offset(0, side));
+
+                if (adjacentX >= 0 && adjacentX < size && adjacentY >= 0 && adjacentY < size && adjacentZ >= 0 && adjacentZ < size) {
+                    // Cells are factor blocks apart and share factor^2 block faces.
+                    spreadCoarse(coarseSection, index, coarseSection, coarseSection.getCellIndex(adjacentX, adjacentY, adjacentZ), factor * timeStep);
+                } else {
+                    spreadAcross(coarseSection, index, pos, side, timeStep);
+                }
+            }
+
+            cells++;
+        }
+
+        return cells;
+    }
+
+    /**
+     * Spreads heat from a coarse cell to the blocks touching it on the other side of the section border.
+     */
+    private void spreadAcross(final CoarseThermalSection coarseSection, final int index, final long pos, final int side, final int timeStep) {
+        final int factor = coarseSection.getFactor();
+        final int x = ThermalStorage.getX(pos);
+        final int y = ThermalStorage.getY(pos);
+        final int z = ThermalStorage.getZ(pos);
+        final long step = ThermalSnapshot.offset(0, side);
+        final int stepX = ThermalStorage.getX(step);
+        final int stepY = ThermalStorage.getY(step);
+        final int stepZ = ThermalStorage.getZ(step);
+
+        // The blocks on the face of the cell, moved one block beyond it.
+        for (int u = 0; u < factor; u++) {
+            for (int v = 0; v < factor; v++) {
+                final int adjacentX = stepX != 0 ? x + (stepX > 0 ? factor : -1) : x + u;
+                final int adjacentY = stepY != 0 ? y + (stepY > 0 ? factor : -1) : y + (stepX != 0 ? u : v);
+                final int adjacentZ = stepZ != 0 ? z + (stepZ > 0 ? factor : -1) : z + v;
+                final long adjacentPos = ThermalStorage.pack(adjacentX, adjacentY, adjacentZ);
+
+                // Never load chunks, heat does not spread into unloaded ones.
+                if (!world.isLoaded(adjacentPos)) {
+                    continue;
+                }
+
+                final CoarseThermalSection adjacentSection = getCoarseSection(adjacentPos);
+
+                if (adjacentSection != null) {
+                    spreadCoarse(coarseSection, index, adjacentSection, getCoarseIndex(adjacentSection, adjacentPos), timeStep * 2D / (factor + adjacentSection.getFactor()));
+                } else {
+                    final double deltaTemperature = coarseSection.getTemperature(index) - getTemperature(adjacentPos);
+
+                    if (deltaTemperature > 0) {
+                        final double heatCapacity = coarseSection.getHeatCapacity(index);
+                        final double adjacentHeatCapacity = world.getHeatCapacity(adjacentPos);
+                        final double heat = getHeatFlow(deltaTemperature, getSpread(adjacentPos) * timeStep * 2 / (factor + 1), heatCapacity, adjacentHeatCapacity);
+
+                        addTemperature(adjacentPos, heat / adjacentHeatCapacity, world.getAmbientTemperature(adjacentPos));
+                        coarseSection.setTemperature(index, coarseSection.getTemperature(index) - heat / heatCapacity);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Spreads heat from a coarse cell to a colder coarse cell.
+     *
+     * @param scale - the shared face area divided by the distance between the cells, times the steps covered.
+     */
+    private void spreadCoarse(final CoarseThermalSection section, final int index, final CoarseThermalSection adjacentSection, final int adjacentIndex, final double scale) {
+        final double deltaTemperature = section.getTemperature(index) - adjacentSection.getTemperature(adjacentIndex);
+
+        if (deltaTemperature > 0) {
+            final double heatCapacity = section.getHeatCapacity(index);
+            final double adjacentHeatCapacity = adjacentSection.getHeatCapacity(adjacentIndex);
+            final double heat = getHeatFlow(deltaTemperature, SPREAD * adjacentSection.getConductivity(adjacentIndex) * DELTA_TIME * scale, heatCapacity, adjacentHeatCapacity);
+
+            section.setTemperature(index, section.getTemperature(index) - heat / heatCapacity);
+            adjacentSection.setTemperature(adjacentIndex, adjacentSection.getTemperature(adjacentIndex) + heat / adjacentHeatCapacity);
+        }
+    }
+
+    /**
+     * @return the heat flowing from a hotter to a colder cell, limited so that a cell spreading to all of its sides at
+     *         once never gets colder than its neighbours.
+     */
+    private static double getHeatFlow(final double deltaTemperature, final double spread, final double heatCapacity, final double adjacentHeatCapacity) {
+        return Math.min(deltaTemperature * spread, deltaTemperature * heatCapacity * adjacentHeatCapacity / (heatCapacity + adjacentHeatCapacity) / ThermalSnapshot.SIDES);
+    }
+}
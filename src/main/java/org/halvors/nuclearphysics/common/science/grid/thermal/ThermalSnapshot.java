@@ -0,0 +1,168 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.Arrays;
+
+/*
+ * A read-only copy of the thermal state of a dimension, taken on the server thread so that diffusion can be solved on
+ * another thread. Cells are ordered by their packed position, which makes every solve over the same snapshot
+ * deterministic.
+ */
+public class ThermalSnapshot {
+    public static final int SIDES = 6;
+
+    private final long[] positions;
+    private final int[] neighbors;
+    private final double[] temperatures;
+    private final double[] ambientTemperatures;
+    private final double[] conductivities;
+    private final double[] heatCapacities;
+    private final double[] relaxations;
+    private final boolean[] active;
+
+    private volatile double[] result;
+
+    /**
+     * @param activePositions - the packed positions of all cells holding a temperature, these and their neighbours
+     *                          will be part of the snapshot.
+     */
+    public ThermalSnapshot(final long[] activePositions) {
+        final long[] all = new long[activePositions.length * (SIDES + 1)];
+        int count = 0;
+
+        for (final long pos : activePositions) {
+            all[count++] = pos;
+
+            for (int side = 0; side < SIDES; side++) {
+                all[count++] = offset(pos, side);
+            }
+        }
+
+        Arrays.sort(all, 0, count);
+
+        // Remove duplicates, neighbouring cells share most of their neighbours.
+        int unique = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || all[unique - 1] != all[i]) {
+                all[unique++] = all[i];
+            }
+        }
+
+        positions = Arrays.copyOf(all, unique);
+        neighbors = new int[unique * SIDES];
+        temperatures = new double[unique];
+        ambientTemperatures = new double[unique];
+        conductivities = new double[unique];
+        heatCapacities = new double[unique];
+        relaxations = new double[unique];
+        active = new boolean[unique];
+
+        for (int i = 0; i < unique; i++) {
+            for (int side = 0; side < SIDES; side++) {
+                neighbors[i * SIDES + side] = Arrays.binarySearch(positions, offset(positions[i], side));
+            }
+        }
+    }
+
+    /**
+     * Offsets a packed position by one block, the sides are ordered like EnumFacing.
+     */
+    public static long offset(final long pos, final int side) {
+        final int x = ThermalStorage.getX(pos);
+        final int y = ThermalStorage.getY(pos);
+        final int z = ThermalStorage.getZ(pos);
+
+        switch (side) {
+            case 0:
+                return ThermalStorage.pack(x, y - 1, z);
+
+            case 1:
+                return ThermalStorage.pack(x, y + 1, z);
+
+            case 2:
+                return ThermalStorage.pack(x, y, z - 1);
+
+            case 3:
+                return ThermalStorage.pack(x, y, z + 1);
+
+            case 4:
+                return ThermalStorage.pack(x - 1, y, z);
+
+            default:
+                return ThermalStorage.pack(x + 1, y, z);
+        }
+    }
+
+    /**
+     * @param index - the cell index.
+     * @param temperature - the temperature of the cell.
+     * @param ambientTemperature - the temperature the cell relaxes towards.
+     * @param conductivity - the fraction of a temperature difference this cell receives from a hotter neighbour per step.
+     * @param heatCapacity - the heat capacity of the cell relative to a solid block, heat flowing in or out is divided by it.
+     * @param relaxation - the temperature change towards ambient temperature applied to the cell this step.
+     * @param active - whether the cell holds a temperature, only active cells lose heat and spread it.
+     */
+    public void setCell(final int index, final double temperature, final double ambientTemperature, final double conductivity, final double heatCapacity, final double relaxation, final boolean active) {
+        this.temperatures[index] = temperature;
+        this.ambientTemperatures[index] = ambientTemperature;
+        this.conductivities[index] = conductivity;
+        this.heatCapacities[index] = heatCapacity;
+        this.relaxations[index] = relaxation;
+        this.active[index] = active;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public int indexOf(final long pos) {
+        return Arrays.binarySearch(positions, pos);
+    }
+
+    public long getPosition(final int index) {
+        return positions[index];
+    }
+
+    /**
+     * @return the index of the neighbouring cell, or a negative value if it is not part of this snapshot.
+     */
+    public int getNeighbor(final int index, final int side) {
+        return neighbors[index * SIDES + side];
+    }
+
+    public double getTemperature(final int index) {
+        return temperatures[index];
+    }
+
+    public double getAmbientTemperature(final int index) {
+        return ambientTemperatures[index];
+    }
+
+    public double getConductivity(final int index) {
+        return conductivities[index];
+    }
+
+    public double getHeatCapacity(final int index) {
+        return heatCapacities[index];
+    }
+
+    public double getRelaxation(final int index) {
+        return relaxations[index];
+    }
+
+    public boolean isActive(final int index) {
+        return active[index];
+    }
+
+    public boolean isSolved() {
+        return result != null;
+    }
+
+    public double[] getResult() {
+        return result;
+    }
+
+    public void setResult(final double[] result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,117 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.Arrays;
+
+/*
+ * Cheap counters and timings of a thermal simulation. Recording is constant time, percentiles are only calculated
+ * when someone asks for them.
+ */
+public class ThermalStatistics {
+    // The number of most recent timings kept for percentiles.
+    private static final int SAMPLES = 1024;
+
+    private final long[] stepTimes = new long[SAMPLES];
+    private final long[] solveTimes = new long[SAMPLES];
+    private long steps;
+    private long solves;
+
+    private long woken;
+    private long slept;
+    private long backlog;
+    private int carriedOver;
+
+    /**
+     * @param time - the time in nanoseconds the server thread spent on a step.
+     */
+    public synchronized void addStep(final long time) {
+        stepTimes[(int) (steps++ % SAMPLES)] = time;
+    }
+
+    /**
+     * @param time - the time in nanoseconds the solver spent on a snapshot.
+     */
+    public synchronized void addSolve(final long time) {
+        solveTimes[(int) (solves++ % SAMPLES)] = time;
+    }
+
+    public synchronized void addWoken() {
+        woken++;
+    }
+
+    public synchronized void addWoken(final int count) {
+        woken += count;
+    }
+
+    public synchronized void addSlept() {
+        slept++;
+    }
+
+    /**
+     * Counts a step that could not be scheduled, because the previous one is still waiting for the server thread.
+     */
+    public synchronized void addBacklog() {
+        backlog++;
+    }
+
+    /**
+     * @param carriedOver - the number of awake cells left over for the next steps, because of the time budget.
+     */
+    public synchronized void setCarriedOver(final int carriedOver) {
+        this.carriedOver = carriedOver;
+    }
+
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    public synchronized long getSolves() {
+        return solves;
+    }
+
+    public synchronized long getWoken() {
+        return woken;
+    }
+
+    public synchronized long getSlept() {
+        return slept;
+    }
+
+    public synchronized long getBacklog() {
+        return backlog;
+    }
+
+    public synchronized int getCarriedOver() {
+        return carriedOver;
+    }
+
+    /**
+     * @param percentile - between 0 and 1.
+     *
+     * @return the step time in nanoseconds at the percentile of the most recent steps.
+     */
+    public synchronized long getStepTime(final double percentile) {
+        return getPercentile(stepTimes, steps, percentile);
+    }
+
+    /**
+     * @param percentile - between 0 and 1.
+     *
+     * @return the solve time in nanoseconds at the percentile of the most recent solves.
+     */
+    public synchronized long getSolveTime(final double percentile) {
+        return getPercentile(solveTimes, solves, percentile);
+    }
+
+    private static long getPercentile(final long[] samples, final long count, final double percentile) {
+        final int size = (int) Math.min(count, SAMPLES);
+
+        if (size == 0) {
+            return 0;
+        }
+
+        final long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+
+        return sorted[Math.min(size - 1, (int) (percentile * size))];
+    }
+}
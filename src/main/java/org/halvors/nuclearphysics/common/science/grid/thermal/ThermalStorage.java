@@ -0,0 +1,667 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Stores the temperatures of a single dimension, keyed by packed block positions and split into 16x16x16 sections.
+ *
+ * Positions are packed in the same layout as BlockPos.toLong(), so they can be converted back with BlockPos.fromLong().
+ */
+public class ThermalStorage {
+    private static final int NUM_X_BITS = 26;
+    private static final int NUM_Z_BITS = NUM_X_BITS;
+    private static final int NUM_Y_BITS = 64 - NUM_X_BITS - NUM_Z_BITS;
+    private static final int Y_SHIFT = NUM_Z_BITS;
+    private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+    private static final long X_MASK = (1L << NUM_X_BITS) - 1;
+    private static final long Y_MASK = (1L << NUM_Y_BITS) - 1;
+    private static final long Z_MASK = (1L << NUM_Z_BITS) - 1;
+
+    // Version of the binary chunk format, bump this when changing it.
+    private static final byte CHUNK_FORMAT = 1;
+    private static final int SECTIONS_PER_CHUNK = 16;
+
+    private final LongObjectMap<ThermalSection> sections = new LongObjectMap<>();
+
+    // Sections far away from players, simulated at a lower level of detail. These never hold any cells in sections.
+    private final LongObjectMap<CoarseThermalSection> coarseSections = new LongObjectMap<>();
+
+    // Saved chunk data that has not been decoded yet, chunks are only decoded once their temperatures are needed.
+    private final LongObjectMap<byte[]> pendingChunks = new LongObjectMap<>();
+
+    // The last accessed section, neighbouring lookups tend to hit the same section.
+    private long cachedKey;
+    private ThermalSection cachedSection;
+
+    private int size;
+    private int awakeSize;
+
+    // Set while a thermal step for this dimension is queued on the server thread.
+    private final AtomicBoolean stepScheduled = new AtomicBoolean();
+
+    // The snapshot being solved off the server thread, at most one is in flight per dimension.
+    private final AtomicReference<ThermalSnapshot> snapshot = new AtomicReference<>();
+
+    // Statistics of the last completed thermal step.
+    private final ThermalStatistics statistics = new ThermalStatistics();
+
+    private volatile int lastStepCells;
+    private volatile long lastStepTime;
+
+    public static long pack(final int x, final int y, final int z) {
+        return ((long) x & X_MASK) << X_SHIFT | ((long) y & Y_MASK) << Y_SHIFT | ((long) z & Z_MASK);
+    }
+
+    public static int getX(final long pos) {
+        return (int) (pos << 64 - X_SHIFT - NUM_X_BITS >> 64 - NUM_X_BITS);
+    }
+
+    public static int getY(final long pos) {
+        return (int) (pos << 64 - Y_SHIFT - NUM_Y_BITS >> 64 - NUM_Y_BITS);
+    }
+
+    public static int getZ(final long pos) {
+        return (int) (pos << 64 - NUM_Z_BITS >> 64 - NUM_Z_BITS);
+    }
+
+    public static long getSectionKey(final long pos) {
+        return pack(getX(pos) >> 4, getY(pos) >> 4, getZ(pos) >> 4);
+    }
+
+    public static int getSectionIndex(final long pos) {
+        return ThermalSection.getIndex(getX(pos), getY(pos), getZ(pos));
+    }
+
+    private ThermalSection getSection(final long sectionKey, final boolean create) {
+        if (cachedSection != null && cachedKey == sectionKey) {
+            return cachedSection;
+        }
+
+        ThermalSection section = sections.get(sectionKey);
+
+        if (section == null && !pendingChunks.isEmpty() && loadPendingChunk(getX(sectionKey), getZ(sectionKey))) {
+            section = sections.get(sectionKey);
+        }
+
+        if (section == null) {
+            if (!create) {
+                return null;
+            }
+
+            section = new ThermalSection();
+            sections.put(sectionKey, section);
+        }
+
+        cachedKey = sectionKey;
+        cachedSection = section;
+
+        return section;
+    }
+
+    /**
+     * @param pos - the packed block position.
+     *
+     * @return the stored temperature, or NaN if the position is at ambient temperature.
+     */
+    public synchronized double get(final long pos) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+
+        return section != null ? section.get(getSectionIndex(pos)) : Double.NaN;
+    }
+
+    public synchronized void set(final long pos, final double temperature) {
+        final ThermalSection section = getSection(getSectionKey(pos), true);
+        final int index = getSectionIndex(pos);
+
+        if (!section.contains(index)) {
+            size++;
+            awakeSize++;
+            statistics.addWoken();
+        }
+
+        section.set(index, temperature);
+    }
+
+    public synchronized void remove(final long pos) {
+        final long sectionKey = getSectionKey(pos);
+        final ThermalSection section = getSection(sectionKey, false);
+        final int index = getSectionIndex(pos);
+
+        if (section != null && section.contains(index)) {
+            if (section.isAwake(index)) {
+                awakeSize--;
+            }
+
+            section.remove(index);
+            size--;
+
+            // Free sections that no longer hold any temperatures.
+            if (section.isEmpty()) {
+                sections.remove(sectionKey);
+                cachedSection = null;
+            }
+        }
+    }
+
+    /**
+     * Takes a copy of all positions currently holding a temperature.
+     *
+     * @return the packed positions.
+     */
+    public synchronized long[] getPositions() {
+        return getPositions(false);
+    }
+
+    /**
+     * Takes a copy of all positions that are awake, these are the only ones that need to be stepped.
+     *
+     * @return the packed positions.
+     */
+    public synchronized long[] getAwakePositions() {
+        return getPositions(true);
+    }
+
+    private long[] getPositions(final boolean awakeOnly) {
+        loadPendingChunks();
+
+        final long[] positions = new long[awakeOnly ? awakeSize : size];
+        final int[] indices = new int[ThermalSection.VOLUME];
+        int count = 0;
+
+        for (final long sectionKey : sections.keys()) {
+            final ThermalSection section = sections.get(sectionKey);
+            final int baseX = getX(sectionKey) << 4;
+            final int baseY = getY(sectionKey) << 4;
+            final int baseZ = getZ(sectionKey) << 4;
+            final int written = awakeOnly ? section.getAwakeIndices(indices) : section.getIndices(indices);
+
+            for (int i = 0; i < written; i++) {
+                final int index = indices[i];
+                positions[count++] = pack(baseX + ThermalSection.getX(index), baseY + ThermalSection.getY(index), baseZ + ThermalSection.getZ(index));
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Collects the temperatures in a box, sections completely inside it are taken from their aggregates so that only
+     * the sections on its border are scanned block by block.
+     *
+     * @return the temperatures between the corners, both inclusive.
+     */
+    public synchronized ThermalRegion getRegion(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+        final ThermalRegion region = new ThermalRegion((long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1));
+        int[] indices = null;
+
+        for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+            for (int sectionZ = minZ >> 4; sectionZ <= maxZ >> 4; sectionZ++) {
+                for (int sectionX = minX >> 4; sectionX <= maxX >> 4; sectionX++) {
+                    final long sectionKey = pack(sectionX, sectionY, sectionZ);
+                    final int baseX = sectionX << 4;
+                    final int baseY = sectionY << 4;
+                    final int baseZ = sectionZ << 4;
+                    final ThermalSection section = getSection(sectionKey, false);
+
+                    if (section != null) {
+                        if (baseX >= minX && baseY >= minY && baseZ >= minZ && baseX + 15 <= maxX && baseY + 15 <= maxY && baseZ + 15 <= maxZ) {
+                            final int minIndex = section.getMinIndex();
+                            final int maxIndex = section.getMaxIndex();
+
+                            region.add(section.size(), section.getSum());
+                            region.addMin(section.getMin(), pack(baseX + ThermalSection.getX(minIndex), baseY + ThermalSection.getY(minIndex), baseZ + ThermalSection.getZ(minIndex)));
+                            region.addMax(section.getMax(), pack(baseX + ThermalSection.getX(maxIndex), baseY + ThermalSection.getY(maxIndex), baseZ + ThermalSection.getZ(maxIndex)));
+                        } else {
+                            if (indices == null) {
+                                indices = new int[ThermalSection.VOLUME];
+                            }
+
+                            final int written = section.getIndices(indices);
+
+                            for (int i = 0; i < written; i++) {
+                                final int x = baseX + ThermalSection.getX(indices[i]);
+                                final int y = baseY + ThermalSection.getY(indices[i]);
+                                final int z = baseZ + ThermalSection.getZ(indices[i]);
+
+                                if (x >= minX && y >= minY && z >= minZ && x <= maxX && y <= maxY && z <= maxZ) {
+                                    final double temperature = section.get(indices[i]);
+
+                                    region.add(1, temperature);
+                                    region.addMin(temperature, pack(x, y, z));
+                                    region.addMax(temperature, pack(x, y, z));
+                                }
+                            }
+                        }
+                    } else {
+                        final CoarseThermalSection coarseSection = getCoarseSection(sectionKey);
+
+                        if (coarseSection != null) {
+                            addCoarseRegion(region, coarseSection, baseX, baseY, baseZ, minX, minY, minZ, maxX, maxY, maxZ);
+                        }
+                    }
+                }
+            }
+        }
+
+        return region;
+    }
+
+    /**
+     * Adds the part of a coarse section inside the box, every block getting the temperature of its coarse cell.
+     */
+    private static void addCoarseRegion(final ThermalRegion region, final CoarseThermalSection coarseSection, final int baseX, final int baseY, final int baseZ, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+        final int factor = coarseSection.getFactor();
+
+        for (int index = 0; index < coarseSection.getVolume(); index++) {
+            final int cellX = baseX + coarseSection.getCellX(index) * factor;
+            final int cellY = baseY + coarseSection.getCellY(index) * factor;
+            final int cellZ = baseZ + coarseSection.getCellZ(index) * factor;
+            final long overlap = (long) getOverlap(cellX, factor, minX, maxX) * getOverlap(cellY, factor, minY, maxY) * getOverlap(cellZ, factor, minZ, maxZ);
+
+            if (overlap > 0 && !coarseSection.isAmbient(index, ThermalSimulation.AMBIENT_THRESHOLD)) {
+                final double temperature = coarseSection.getTemperature(index);
+                final long pos = pack(Math.max(cellX, minX), Math.max(cellY, minY), Math.max(cellZ, minZ));
+
+                region.add(overlap, temperature * overlap);
+                region.addMin(temperature, pos);
+                region.addMax(temperature, pos);
+            }
+        }
+    }
+
+    private static int getOverlap(final int start, final int length, final int min, final int max) {
+        return Math.max(0, Math.min(start + length - 1, max) - Math.max(start, min) + 1);
+    }
+
+    /**
+     * @return the handle the world cached for the cell, or null if it has none since the block changed.
+     */
+    public synchronized Object getHandle(final long pos) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+
+        return section != null ? section.getHandle(getSectionIndex(pos)) : null;
+    }
+
+    /**
+     * Caches an opaque handle for the cell, if it holds a temperature. It is dropped when the cell is removed, pass
+     * null to drop it earlier.
+     */
+    public synchronized void setHandle(final long pos, final Object handle) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+        final int index = getSectionIndex(pos);
+
+        if (section != null && section.contains(index)) {
+            section.setHandle(index, handle);
+        }
+    }
+
+    public synchronized boolean isAwake(final long pos) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+
+        return section != null && section.isAwake(getSectionIndex(pos));
+    }
+
+    /**
+     * Wakes the cell at the position, if it holds a temperature.
+     */
+    public synchronized void wake(final long pos) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+
+        if (section != null && section.wake(getSectionIndex(pos))) {
+            awakeSize++;
+            statistics.addWoken();
+        }
+    }
+
+    /**
+     * Wakes every cell of the section.
+     */
+    public synchronized void wakeSection(final long sectionKey) {
+        final ThermalSection section = sections.get(sectionKey);
+
+        if (section != null) {
+            final int woken = section.wakeAll();
+
+            awakeSize += woken;
+            statistics.addWoken(woken);
+        }
+    }
+
+    /**
+     * Wakes the cell at the position and all of its neighbours.
+     */
+    public synchronized void wakeAround(final long pos) {
+        wake(pos);
+        wakeNeighbors(pos);
+    }
+
+    public synchronized void wakeNeighbors(final long pos) {
+        for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+            wake(ThermalSnapshot.offset(pos, side));
+        }
+    }
+
+    /**
+     * Records how much a cell changed during a step. A cell that changed significantly wakes its neighbours, as they
+     * have to react to it, while a cell that stayed quiet for long enough is put to sleep.
+     *
+     * @param pos - the packed position of the cell.
+     * @param quiet - whether the change was below the sleep threshold.
+     * @param sleepSteps - the number of successive quiet steps before the cell sleeps.
+     */
+    public synchronized void updateSleep(final long pos, final boolean quiet, final int sleepSteps) {
+        final ThermalSection section = getSection(getSectionKey(pos), false);
+        final int index = getSectionIndex(pos);
+
+        if (section == null || !section.isAwake(index)) {
+            return;
+        }
+
+        if (!quiet) {
+            section.resetQuietSteps(index);
+            wakeNeighbors(pos);
+        } else if (section.addQuietStep(index) >= sleepSteps) {
+            section.sleep(index);
+            awakeSize--;
+            statistics.addSlept();
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int getAwakeSize() {
+        return awakeSize;
+    }
+
+    public synchronized int getSectionCount() {
+        return sections.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0 && coarseSections.isEmpty();
+    }
+
+    /**
+     * @return the keys of all sections holding cells, sections in chunks that were not decoded yet are not included.
+     */
+    public synchronized long[] getSectionKeys() {
+        return sections.keys();
+    }
+
+    /**
+     * Removes all cells of a section at once.
+     */
+    public synchronized void removeSection(final long sectionKey) {
+        final ThermalSection section = sections.remove(sectionKey);
+
+        if (section != null) {
+            size -= section.size();
+            awakeSize -= section.getAwakeCount();
+            cachedSection = null;
+        }
+    }
+
+    public synchronized long[] getCoarseSectionKeys() {
+        return coarseSections.keys();
+    }
+
+    /**
+     * @return the coarse section, or null if the section is simulated block by block.
+     */
+    public synchronized CoarseThermalSection getCoarseSection(final long sectionKey) {
+        return coarseSections.isEmpty() ? null : coarseSections.get(sectionKey);
+    }
+
+    /**
+     * Pass null to remove the coarse section.
+     */
+    public synchronized void setCoarseSection(final long sectionKey, final CoarseThermalSection section) {
+        if (section != null) {
+            coarseSections.put(sectionKey, section);
+        } else {
+            coarseSections.remove(sectionKey);
+        }
+    }
+
+    public synchronized int getCoarseSectionCount() {
+        return coarseSections.size();
+    }
+
+    /**
+     * @return the approximate number of bytes used by the stored sections and the chunk data not decoded yet.
+     */
+    public synchronized long getMemoryUsage() {
+        final long[] usage = new long[1];
+
+        sections.forEachValue(section -> usage[0] += section.getMemoryUsage());
+        coarseSections.forEachValue(section -> usage[0] += section.getMemoryUsage());
+        pendingChunks.forEachValue(data -> usage[0] += data.length);
+
+        return usage[0];
+    }
+
+    public ThermalStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Marks a step as scheduled, unless one is already waiting to be run.
+     *
+     * @return true if the caller should schedule a new step.
+     */
+    public boolean tryScheduleStep() {
+        if (stepScheduled.compareAndSet(false, true)) {
+            return true;
+        }
+
+        statistics.addBacklog();
+
+        return false;
+    }
+
+    public void finishStep(final int cells, final long time) {
+        lastStepCells = cells;
+        lastStepTime = time;
+        statistics.addStep(time);
+        stepScheduled.set(false);
+    }
+
+    public ThermalSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public void setSnapshot(final ThermalSnapshot snapshot) {
+        this.snapshot.set(snapshot);
+    }
+
+    public boolean isStepScheduled() {
+        return stepScheduled.get();
+    }
+
+    /**
+     * @return the number of cells processed by the last step.
+     */
+    public int getLastStepCells() {
+        return lastStepCells;
+    }
+
+    /**
+     * @return the time in nanoseconds spent by the last step.
+     */
+    public long getLastStepTime() {
+        return lastStepTime;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public static long getChunkKey(final int chunkX, final int chunkZ) {
+        return pack(chunkX, 0, chunkZ);
+    }
+
+    public synchronized boolean hasPendingChunks() {
+        return !pendingChunks.isEmpty();
+    }
+
+    /**
+     * Encodes all temperatures of a chunk, only the cells holding a temperature are written. Coarse sections are
+     * written block by block, every block getting the temperature of its coarse cell.
+     *
+     * @return the encoded chunk, or null if the whole chunk is at ambient temperature.
+     */
+    public synchronized byte[] writeChunk(final int chunkX, final int chunkZ) {
+        // Chunks that were never decoded can be written back as they are.
+        final byte[] pending = pendingChunks.get(getChunkKey(chunkX, chunkZ));
+
+        if (pending != null) {
+            return pending;
+        }
+
+        final int[] indices = new int[ThermalSection.VOLUME];
+        int sectionCount = 0;
+        int cellCount = 0;
+
+        for (int sectionY = 0; sectionY < SECTIONS_PER_CHUNK; sectionY++) {
+            final ThermalSection section = sections.get(pack(chunkX, sectionY, chunkZ));
+
+            if (section != null) {
+                sectionCount++;
+                cellCount += section.size();
+            } else {
+                final CoarseThermalSection coarseSection = getCoarseSection(pack(chunkX, sectionY, chunkZ));
+
+                if (coarseSection != null && !coarseSection.isAmbient(ThermalSimulation.AMBIENT_THRESHOLD)) {
+                    sectionCount++;
+                    cellCount += coarseSection.getBlockCount(ThermalSimulation.AMBIENT_THRESHOLD);
+                }
+            }
+        }
+
+        if (sectionCount == 0) {
+            return null;
+        }
+
+        // Format: version, section count, then per section its y, cell count and (index, temperature) pairs.
+        final ByteBuffer buffer = ByteBuffer.allocate(2 + sectionCount * 3 + cellCount * 6);
+        buffer.put(CHUNK_FORMAT);
+        buffer.put((byte) sectionCount);
+
+        for (int sectionY = 0; sectionY < SECTIONS_PER_CHUNK; sectionY++) {
+            final ThermalSection section = sections.get(pack(chunkX, sectionY, chunkZ));
+
+            if (section != null) {
+                final int count = section.getIndices(indices);
+                buffer.put((byte) sectionY);
+                buffer.putShort((short) count);
+
+                for (int i = 0; i < count; i++) {
+                    buffer.putShort((short) indices[i]);
+                    buffer.putFloat((float) section.get(indices[i]));
+                }
+            } else {
+                final CoarseThermalSection coarseSection = getCoarseSection(pack(chunkX, sectionY, chunkZ));
+
+                if (coarseSection != null && !coarseSection.isAmbient(ThermalSimulation.AMBIENT_THRESHOLD)) {
+                    buffer.put((byte) sectionY);
+                    buffer.putShort((short) coarseSection.getBlockCount(ThermalSimulation.AMBIENT_THRESHOLD));
+
+                    for (int index = 0; index < ThermalSection.VOLUME; index++) {
+                        final int cell = coarseSection.getIndex(ThermalSection.getX(index), ThermalSection.getY(index), ThermalSection.getZ(index));
+
+                        if (!coarseSection.isAmbient(cell, ThermalSimulation.AMBIENT_THRESHOLD)) {
+                            buffer.putShort((short) index);
+                            buffer.putFloat((float) coarseSection.getTemperature(cell));
+                        }
+                    }
+                }
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Queues saved temperatures of a chunk, they are decoded the first time they are needed.
+     */
+    public synchronized void readChunk(final int chunkX, final int chunkZ, final byte[] data) {
+        if (data != null && data.length > 0 && data[0] == CHUNK_FORMAT) {
+            pendingChunks.put(getChunkKey(chunkX, chunkZ), data);
+        }
+    }
+
+    /**
+     * Evicts all temperatures of a chunk from memory.
+     */
+    public synchronized void unloadChunk(final int chunkX, final int chunkZ) {
+        pendingChunks.remove(getChunkKey(chunkX, chunkZ));
+
+        for (int sectionY = 0; sectionY < SECTIONS_PER_CHUNK; sectionY++) {
+            final ThermalSection section = sections.remove(pack(chunkX, sectionY, chunkZ));
+
+            if (section != null) {
+                size -= section.size();
+                awakeSize -= section.getAwakeCount();
+            }
+
+            coarseSections.remove(pack(chunkX, sectionY, chunkZ));
+        }
+
+        cachedSection = null;
+    }
+
+    private void loadPendingChunks() {
+        for (final long chunkKey : pendingChunks.keys()) {
+            loadPendingChunk(getX(chunkKey), getZ(chunkKey));
+        }
+    }
+
+    private boolean loadPendingChunk(final int chunkX, final int chunkZ) {
+        final byte[] data = pendingChunks.remove(getChunkKey(chunkX, chunkZ));
+
+        if (data == null) {
+            return false;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.get(); // Format version, already checked.
+        final int sectionCount = buffer.get();
+
+        for (int i = 0; i < sectionCount; i++) {
+            final int sectionY = buffer.get();
+            final int cellCount = buffer.getShort() & 0xFFFF;
+            final long sectionKey = pack(chunkX, sectionY, chunkZ);
+            ThermalSection section = sections.get(sectionKey);
+
+            if (section == null) {
+                section = new ThermalSection();
+                sections.put(sectionKey, section);
+            }
+
+            for (int j = 0; j < cellCount; j++) {
+                final int index = buffer.getShort() & 0xFFFF;
+                final double temperature = buffer.getFloat();
+
+                // Loaded cells start awake, and will go back to sleep if they are stable.
+                if (!section.contains(index)) {
+                    size++;
+                    awakeSize++;
+                }
+
+                section.set(index, temperature);
+            }
+
+            if (section.isEmpty()) {
+                sections.remove(sectionKey);
+            }
+        }
+
+        cachedSection = null;
+
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+package org.halvors.nuclearphysics.common.science.physics;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Caches the biome temperatures of every column in a chunk, so ambient temperatures can be calculated without
+ * touching the biome provider. Chunks are invalidated when they load or unload, which covers biome changes. Only
+ * loaded chunks are cached, so the cache never holds more chunks than the world has loaded.
+ */
+public class AmbientTemperatureCache {
+    private static final Map<Integer, AmbientTemperatureCache> caches = new ConcurrentHashMap<>();
+
+    // Biome.getFloatTemperature() drops by this much per block above the sea level.
+    private static final float HEIGHT_FALLOFF = 0.05F / 30.0F;
+    private static final int SEA_LEVEL = 64;
+    private static final int COLUMNS = 16 * 16;
+
+    // Per chunk: the biome temperature of each column at and below sea level, followed by the one right above it.
+    private final LongObjectMap<float[]> chunks = new LongObjectMap<>();
+
+    private long cachedTime = Long.MIN_VALUE;
+    private boolean daytime;
+
+    private static AmbientTemperatureCache getCache(final World world) {
+        return caches.computeIfAbsent(world.provider.getDimension(), dimension -> new AmbientTemperatureCache());
+    }
+
+    /**
+     * @return The biome temperature at the position, the same value as Biome.getFloatTemperature().
+     */
+    public static float getBiomeTemperature(final World world, final BlockPos pos) {
+        return getCache(world).getColumnTemperature(world, pos);
+    }
+
+    /**
+     * @return whether it is day in the world, only looked up once per tick.
+     */
+    public static boolean isDaytime(final World world) {
+        return getCache(world).isCachedDaytime(world);
+    }
+
+    public static void invalidate(final World world, final int chunkX, final int chunkZ) {
+        final AmbientTemperatureCache cache = caches.get(world.provider.getDimension());
+
+        if (cache != null) {
+            synchronized (cache) {
+                cache.chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    public static void unload(final World world) {
+        caches.remove(world.provider.getDimension());
+    }
+
+    private synchronized float getColumnTemperature(final World world, final BlockPos pos) {
+        final long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        float[] temperatures = chunks.get(key);
+
+        if (temperatures == null) {
+            // Unloaded chunks would never be invalidated again.
+            if (!world.isBlockLoaded(pos)) {
+                return world.getBiome(pos).getFloatTemperature(pos);
+            }
+
+            temperatures = calculateChunk(world, pos.getX() >> 4, pos.getZ() >> 4);
+            chunks.put(key, temperatures);
+        }
+
+        final int column = (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+
+        if (pos.getY() > SEA_LEVEL) {
+            return temperatures[COLUMNS + column] - (pos.getY() - SEA_LEVEL - 1) * HEIGHT_FALLOFF;
+        }
+
+        return temperatures[column];
+    }
+
+    private static float[] calculateChunk(final World world, final int chunkX, final int chunkZ) {
+        final float[] temperatures = new float[COLUMNS * 2];
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                final int column = z << 4 | x;
+                pos.setPos((chunkX << 4) + x, SEA_LEVEL + 1, (chunkZ << 4) + z);
+
+                // Above sea level the temperature only depends on the height and a per column noise value.
+                final Biome biome = world.getBiome(pos);
+                temperatures[column] = biome.getTemperature();
+                temperatures[COLUMNS + column] = biome.getFloatTemperature(pos);
+            }
+        }
+
+        return temperatures;
+    }
+
+    private synchronized boolean isCachedDaytime(final World world) {
+        final long time = world.getTotalWorldTime();
+
+        if (time != cachedTime) {
+            cachedTime = time;
+            daytime = world.isDaytime();
+        }
+
+        return daytime;
+    }
+}
@@ -0,0 +1,186 @@
+package org.halvors.nuclearphysics.common.science.physics;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fluids.FluidStack;
+import org.halvors.nuclearphysics.api.fluid.IBoilHandler;
+import org.halvors.nuclearphysics.common.capabilities.CapabilityBoilHandler;
+import org.halvors.nuclearphysics.common.event.BoilEvent;
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Routes steam from boiling water to the boil handlers above it. The tiles found above every boiling block are cached
+ * until a block around the column changes, and all steam a tile receives during a tick is delivered to it in a single
+ * call at the end of the tick. Only used from the server thread.
+ */
+public class SteamRouter {
+    private static final Map<Integer, SteamRouter> routers = new ConcurrentHashMap<>();
+
+    // Multiblocks can gain or lose their boil handler without notifying their neighbours, so columns are also
+    // looked up again after this many ticks.
+    private static final int COLUMN_LIFETIME = 20;
+
+    // Per boiling block, the tiles with a boil handler at every height above it.
+    private final LongObjectMap<Column> columns = new LongObjectMap<>();
+
+    // Steam received by every tile this tick, in the order they first received it.
+    private final Map<TileEntity, FluidStack> pending = new LinkedHashMap<>();
+
+    private int maxHeight;
+
+    private static SteamRouter getRouter(final World world) {
+        return routers.computeIfAbsent(world.provider.getDimension(), dimension -> new SteamRouter());
+    }
+
+    /**
+     * Queues the steam of the event for the boil handlers above it, it is delivered by deliver().
+     */
+    public static void addSteam(final BoilEvent event) {
+        getRouter(event.getWorld()).add(event.getWorld(), event.getPos(), (int) event.getMaxSpread(), event);
+    }
+
+    /**
+     * @return whether there is a boil handler right above the position.
+     */
+    public static boolean hasBoilHandler(final World world, final BlockPos pos) {
+        return getRouter(world).getColumn(world, pos, 1).tiles[0] != null;
+    }
+
+    /**
+     * Delivers all steam queued in the world this tick, and forgets expired columns once per COLUMN_LIFETIME ticks.
+     */
+    public static void deliver(final World world) {
+        final SteamRouter router = routers.get(world.provider.getDimension());
+
+        if (router != null) {
+            if (!router.pending.isEmpty()) {
+                router.deliverPending();
+            }
+
+            final long time = world.getTotalWorldTime();
+
+            if (time % COLUMN_LIFETIME == 0 && !router.columns.isEmpty()) {
+                router.removeExpiredColumns(time);
+            }
+        }
+    }
+
+    /**
+     * Forgets the columns a changed block might be part of.
+     */
+    public static void invalidate(final World world, final BlockPos pos) {
+        final SteamRouter router = routers.get(world.provider.getDimension());
+
+        if (router != null && !router.columns.isEmpty()) {
+            for (int height = 0; height <= router.maxHeight; height++) {
+                router.columns.remove(pos.down(height).toLong());
+            }
+        }
+    }
+
+    public static void invalidate(final World world, final int chunkX, final int chunkZ) {
+        final SteamRouter router = routers.get(world.provider.getDimension());
+
+        if (router != null) {
+            for (final long key : router.columns.keys()) {
+                final BlockPos pos = BlockPos.fromLong(key);
+
+                if (pos.getX() >> 4 == chunkX && pos.getZ() >> 4 == chunkZ) {
+                    router.columns.remove(key);
+                }
+            }
+        }
+    }
+
+    public static void unload(final World world) {
+        routers.remove(world.provider.getDimension());
+    }
+
+    private void add(final World world, final BlockPos pos, final int height, final BoilEvent event) {
+        final Column column = getColumn(world, pos, height);
+
+        for (int i = 1; i <= height; i++) {
+            final TileEntity tile = column.tiles[i - 1];
+
+            if (tile != null) {
+                final FluidStack gasStack = event.getGas(i);
+
+                if (gasStack.amount > 0) {
+                    final FluidStack queued = pending.get(tile);
+
+                    if (queued != null) {
+                        queued.amount += gasStack.amount;
+                    } else {
+                        pending.put(tile, gasStack.copy());
+                    }
+                }
+            }
+        }
+    }
+
+    private Column getColumn(final World world, final BlockPos pos, final int height) {
+        final long key = pos.toLong();
+        final long time = world.getTotalWorldTime();
+        Column column = columns.get(key);
+
+        if (column == null || column.tiles.length < height || time - column.time >= COLUMN_LIFETIME) {
+            column = new Column(time, new TileEntity[Math.max(height, column != null ? column.tiles.length : 0)]);
+
+            for (int i = 1; i <= column.tiles.length; i++) {
+                final TileEntity tile = world.getTileEntity(pos.up(i));
+
+                if (tile != null && tile.hasCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN)) {
+                    column.tiles[i - 1] = tile;
+                }
+            }
+
+            columns.put(key, column);
+            maxHeight = Math.max(maxHeight, column.tiles.length);
+        }
+
+        return column;
+    }
+
+    /**
+     * Removes the columns that would be looked up again anyway, water that stopped boiling leaves them behind.
+     */
+    private void removeExpiredColumns(final long time) {
+        for (final long key : columns.keys()) {
+            if (time - columns.get(key).time >= COLUMN_LIFETIME) {
+                columns.remove(key);
+            }
+        }
+    }
+
+    private void deliverPending() {
+        for (final Map.Entry<TileEntity, FluidStack> entry : pending.entrySet()) {
+            final TileEntity tile = entry.getKey();
+
+            // The tile might have been removed, or lost its boil handler, since the column was looked up.
+            if (!tile.isInvalid() && tile.hasCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN)) {
+                final IBoilHandler boilHandler = tile.getCapability(CapabilityBoilHandler.BOIL_HANDLER_CAPABILITY, EnumFacing.DOWN);
+
+                // Steam that does not fit is lost, just like it always was.
+                boilHandler.receiveGas(entry.getValue(), true);
+            }
+        }
+
+        pending.clear();
+    }
+
+    private static class Column {
+        private final long time;
+        private final TileEntity[] tiles;
+
+        private Column(final long time, final TileEntity[] tiles) {
+            this.time = time;
+            this.tiles = tiles;
+        }
+    }
+}
@@ -18,11 +18,25 @@ public class ThermalPhysics {
      * @return The temperature of the coordinate in the world in kelvin.
      */
     public static double getTemperatureForCoordinate(final World world, final BlockPos pos) {
-        final double worldTemperature = world.getBiome(pos).getFloatTemperature(pos);
-        final double averageTemperature = ICE_MELT_TEMPERATURE + ((worldTemperature - 0.4) * 50);
+        // Servers look this up for every block in the thermal grid, so read it from the cache there.
+        final boolean cached = !world.isRemote;
+        final double worldTemperature = cached ? AmbientTemperatureCache.getBiomeTemperature(world, pos) : world.getBiome(pos).getFloatTemperature(pos);
+        final boolean daytime = cached ? AmbientTemperatureCache.isDaytime(world) : world.isDaytime();
+
+        return getTemperatureForBiome(worldTemperature, daytime);
+    }
+
+    /**
+     * @param biomeTemperature - the temperature of the biome, as returned by Biome.getFloatTemperature().
+     * @param daytime - whether it is day.
+     *
+     * @return The temperature in kelvin.
+     */
+    public static double getTemperatureForBiome(final double biomeTemperature, final boolean daytime) {
+        final double averageTemperature = ICE_MELT_TEMPERATURE + ((biomeTemperature - 0.4) * 50);
         final double dayNightVariance = averageTemperature * 0.05;
 
-        return averageTemperature + (world.isDaytime() ? dayNightVariance : -dayNightVariance);
+        return averageTemperature + (daytime ? dayNightVariance : -dayNightVariance);
     }
 
     public static double getEnergyForTemperatureChange(final double mass, final double specificHeatCapacity, final double temperature) {
@@ -38,7 +52,17 @@ public class ThermalPhysics {
     }
 
     public static double getRequiredBoilWaterEnergy(final World world, final BlockPos pos, final int volume) {
-        final double temperatureChange = WATER_BOIL_TEMPERATURE - getTemperatureForCoordinate(world, pos);
+        return getRequiredBoilWaterEnergy(getTemperatureForCoordinate(world, pos), volume);
+    }
+
+    /**
+     * @param temperature - the temperature of the water in kelvin.
+     * @param volume - the volume of the water in millibuckets.
+     *
+     * @return the energy needed to heat the water up to its boiling point and boil it.
+     */
+    public static double getRequiredBoilWaterEnergy(final double temperature, final int volume) {
+        final double temperatureChange = WATER_BOIL_TEMPERATURE - temperature;
         final double mass = getMass(volume, 1);
 
         return getEnergyForTemperatureChange(mass, 4200, temperatureChange) + getEnergyForStateChange(mass, 2257000);
@@ -0,0 +1,98 @@
+package org.halvors.nuclearphysics.common.science.reactor;
+
+/*
+ * The heat math of a fission reactor cell, independent of Minecraft. TileReactorCell feeds it the energy released by
+ * its fuel rod and the number of control rods around it, and applies the result to the world.
+ */
+public class ReactorCellModel {
+    public static final int MELTING_POINT = 2000;
+    private static final int MELTDOWN_COUNTER_MAXIMUM = 1000;
+
+    // One cubic meter at a density of 7 tons per cubic meter.
+    private static final double MASS = 7;
+    private static final int SPECIFIC_HEAT_CAPACITY = 1000;
+
+    // Only a small percentage of the internal energy is used for temperature.
+    private static final double HEAT_EFFICIENCY = 0.15;
+
+    private long internalEnergy = 0;
+    private long previousInternalEnergy = 0;
+    private int meltdownCounter = 0;
+
+    /**
+     * Adds energy released this tick, usually called by a fuel rod.
+     */
+    public void heat(final long energy) {
+        internalEnergy = Math.max(internalEnergy + energy, 0);
+    }
+
+    /**
+     * To be called before the fuel rod reacts.
+     */
+    public void beginTick() {
+        previousInternalEnergy = internalEnergy;
+    }
+
+    /**
+     * To be called once the temperature change has been applied.
+     */
+    public void endTick() {
+        internalEnergy = 0;
+    }
+
+    /**
+     * @return whether energy was released this tick.
+     */
+    public boolean isReacting() {
+        return internalEnergy - previousInternalEnergy > 0;
+    }
+
+    /**
+     * @param controlRods - the number of control rods next to the cell, each of them halves the temperature change.
+     *
+     * @return the temperature change caused by the energy released this tick.
+     */
+    public double getDeltaTemperature(final int controlRods) {
+        if (!isReacting()) {
+            return 0;
+        }
+
+        final long energy = (long) ((internalEnergy - previousInternalEnergy) * HEAT_EFFICIENCY);
+        double deltaTemperature = energy / (MASS * SPECIFIC_HEAT_CAPACITY);
+
+        for (int i = 0; i < controlRods; i++) {
+            deltaTemperature /= 2;
+        }
+
+        return deltaTemperature;
+    }
+
+    /**
+     * Counts towards a meltdown while the cell is above its melting point, and back down while it is below.
+     *
+     * @return true if the cell melts down.
+     */
+    public boolean updateMeltdown(final double temperature) {
+        if (temperature >= MELTING_POINT) {
+            if (meltdownCounter < MELTDOWN_COUNTER_MAXIMUM) {
+                meltdownCounter++;
+
+                return false;
+            }
+
+            meltdownCounter = 0;
+
+            return true;
+        }
+
+        if (meltdownCounter > 0) {
+            meltdownCounter--;
+        }
+
+        return false;
+    }
+
+    public int getMeltdownCounter() {
+        return meltdownCounter;
+    }
+}
@@ -0,0 +1,75 @@
+package org.halvors.nuclearphysics.common.science.reactor;
+
+/*
+ * The power math of an electric turbine, independent of Minecraft. The area is 1 for a single turbine and grows with
+ * the radius of a constructed multiblock.
+ */
+public class TurbineModel {
+    public static final int ENERGY_PER_STEAM = 40;
+    private static final int DEFAULT_TORQUE = 5000;
+
+    // Max power in watts of a single turbine.
+    private final int maxPower;
+
+    // The power of the turbine this tick. In joules/tick
+    private int power = 0;
+
+    private float angularVelocity = 0;
+
+    public TurbineModel(final int maxPower) {
+        this.maxPower = maxPower;
+    }
+
+    public static int getArea(final int radius) {
+        return (int) ((radius + 0.5) * 2 * (radius + 0.5) * 2);
+    }
+
+    public int getTorque(final int area) {
+        return DEFAULT_TORQUE * 500 * area;
+    }
+
+    public int getMaxPower(final int area) {
+        return maxPower * area;
+    }
+
+    /**
+     * @param steam - the amount of steam available.
+     *
+     * @return the amount of steam the turbine wants to consume this tick.
+     */
+    public int getSteamDemand(final int steam, final int area) {
+        if (steam > 0 && power < maxPower) {
+            return (int) Math.ceil(Math.min(steam * 0.1, getMaxPower(area) / ENERGY_PER_STEAM));
+        }
+
+        return 0;
+    }
+
+    /**
+     * Spins up the turbine with the consumed steam.
+     *
+     * @return the angular velocity based on power and torque.
+     */
+    public float consumeSteam(final int steam, final int area) {
+        power += steam * ENERGY_PER_STEAM;
+        angularVelocity = (float) ((power * 4 * 256) / getTorque(area));
+
+        return angularVelocity;
+    }
+
+    public int getPower() {
+        return power;
+    }
+
+    public void resetPower() {
+        power = 0;
+    }
+
+    public float getAngularVelocity() {
+        return angularVelocity;
+    }
+
+    public void setAngularVelocity(final float angularVelocity) {
+        this.angularVelocity = angularVelocity;
+    }
+}
@@ -0,0 +1,54 @@
+package org.halvors.nuclearphysics.common.tile;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import org.halvors.nuclearphysics.common.ConfigurationManager.Offline;
+
+/*
+ * Remembers the world time a tile was saved at, which is when its chunk was unloaded if it is loaded from disk again.
+ * Tiles use it to catch up on the ticks they missed in between, in a few large steps instead of tick by tick.
+ */
+public class OfflineTimer {
+    private static final String NBT_SAVED_TIME = "savedTime";
+
+    private long savedTime = -1;
+
+    public void readFromNBT(final NBTTagCompound tag) {
+        savedTime = tag.hasKey(NBT_SAVED_TIME) ? tag.getLong(NBT_SAVED_TIME) : -1;
+    }
+
+    public void writeToNBT(final NBTTagCompound tag, final World world) {
+        if (world != null) {
+            tag.setLong(NBT_SAVED_TIME, world.getTotalWorldTime());
+        }
+    }
+
+    /**
+     * Removes the saved time from a tag that is not written to disk, so a tile created from it does not catch up.
+     */
+    public static void removeFromNBT(final NBTTagCompound tag) {
+        tag.removeTag(NBT_SAVED_TIME);
+    }
+
+    /**
+     * @return the number of ticks missed since the tile was saved, at most Offline.maxCatchUpTicks. Only returned once
+     * after the tile was loaded, 0 after that.
+     */
+    public long getMissedTicks(final World world) {
+        return getMissedTicks(world.getTotalWorldTime());
+    }
+
+    /**
+     * @param time - the current total world time.
+     */
+    public long getMissedTicks(final long time) {
+        if (savedTime < 0) {
+            return 0;
+        }
+
+        final long missedTicks = time - savedTime;
+        savedTime = -1;
+
+        return Math.max(Math.min(missedTicks, Offline.maxCatchUpTicks), 0);
+    }
+}
@@ -0,0 +1,306 @@
+package org.halvors.nuclearphysics.common.tile.reactor;
+
+import net.minecraft.block.Block;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.halvors.nuclearphysics.api.tile.IReactor;
+import org.halvors.nuclearphysics.common.init.ModBlocks;
+import org.halvors.nuclearphysics.common.item.reactor.fission.ItemFissileFuel;
+import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
+import org.halvors.nuclearphysics.common.type.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * A group of connected reactor cells, updated as one unit once per tick by whichever of its cells ticks first.
+ *
+ * The cells, what is next to each of them and their temperatures are kept in flat arrays, discovered once when the
+ * cluster is built and kept up to date by BlockReactorCell.neighborChanged(). Control rods are counted again in place,
+ * only cells being added or removed rebuild the cluster. Ticking a cluster does no world lookups besides reading the
+ * temperatures from the thermal grid. Only used from the server thread.
+ */
+public class ReactorCluster {
+    private static final Map<Integer, LongObjectMap<ReactorCluster>> clusters = new ConcurrentHashMap<>();
+
+    private static final int SIDES = EnumFacing.VALUES.length;
+
+    // What is next to a cell on each side.
+    private static final byte OTHER = 0;
+    private static final byte CELL = 1;
+    private static final byte CONTROL_ROD = 2;
+
+    private final long[] positions;
+    private final TileReactorCell[] cells;
+    private final byte[] sides;
+    private final int[] neighbors;
+    private final int[] controlRods;
+    private final double[] temperatures;
+    private final List<List<IReactor>> neighborReactors = new ArrayList<>();
+
+    private long lastTick = Long.MIN_VALUE;
+    private boolean dirty;
+
+    private ReactorCluster(final List<TileReactorCell> cells) {
+        final int size = cells.size();
+
+        // Sorted by position, so cells can be found by a binary search.
+        cells.sort(Comparator.comparingLong(cell -> cell.getPos().toLong()));
+
+        this.positions = new long[size];
+        this.cells = cells.toArray(new TileReactorCell[size]);
+        this.sides = new byte[size * SIDES];
+        this.neighbors = new int[size * SIDES];
+        this.controlRods = new int[size];
+        this.temperatures = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            positions[i] = this.cells[i].getPos().toLong();
+        }
+    }
+
+    /**
+     * @return the cluster of the cell, which is built first if the cell is not part of one.
+     */
+    public static ReactorCluster getCluster(final TileReactorCell cell) {
+        final LongObjectMap<ReactorCluster> worldClusters = clusters.computeIfAbsent(cell.getWorld().provider.getDimension(), dimension -> new LongObjectMap<>());
+        final ReactorCluster cluster = worldClusters.get(cell.getPos().toLong());
+
+        if (cluster != null && !cluster.dirty) {
+            return cluster;
+        }
+
+        return build(worldClusters, cell);
+    }
+
+    /**
+     * Looks at what is next to the cell at the position again, to be called when one of its neighbours changed.
+     */
+    public static void onNeighborChanged(final World world, final BlockPos pos) {
+        final LongObjectMap<ReactorCluster> worldClusters = clusters.get(world.provider.getDimension());
+        final ReactorCluster cluster = worldClusters != null ? worldClusters.get(pos.toLong()) : null;
+
+        if (cluster == null || cluster.dirty) {
+            return;
+        }
+
+        final int index = cluster.indexOf(pos.toLong());
+        int controlRods = 0;
+
+        for (final EnumFacing side : EnumFacing.VALUES) {
+            final BlockPos checkPos = pos.offset(side);
+            final int slot = index * SIDES + side.ordinal();
+            final byte kind = world.isBlockLoaded(checkPos) ? getKind(world.getBlockState(checkPos).getBlock()) : OTHER;
+
+            // A cell was added or removed, which changes the whole cluster.
+            if ((kind == CELL) != (cluster.sides[slot] == CELL)) {
+                cluster.dirty = true;
+
+                return;
+            }
+
+            cluster.sides[slot] = kind;
+
+            if (kind == CONTROL_ROD && side.getAxis().isHorizontal()) {
+                controlRods++;
+            }
+        }
+
+        cluster.controlRods[index] = controlRods;
+    }
+
+    /**
+     * Rebuilds the cluster of the cell the next time it is used, to be called when the cell is removed or unloaded.
+     */
+    public static void invalidate(final World world, final BlockPos pos) {
+        final LongObjectMap<ReactorCluster> worldClusters = clusters.get(world.provider.getDimension());
+
+        if (worldClusters != null) {
+            final ReactorCluster cluster = worldClusters.remove(pos.toLong());
+
+            if (cluster != null) {
+                cluster.dirty = true;
+            }
+        }
+    }
+
+    public static void unload(final World world) {
+        clusters.remove(world.provider.getDimension());
+    }
+
+    private static byte getKind(final Block block) {
+        if (block == ModBlocks.blockReactorCell) {
+            return CELL;
+        } else if (block == ModBlocks.blockControlRod) {
+            return CONTROL_ROD;
+        }
+
+        return OTHER;
+    }
+
+    private static ReactorCluster build(final LongObjectMap<ReactorCluster> worldClusters, final TileReactorCell start) {
+        final World world = start.getWorld();
+        final LongObjectMap<TileReactorCell> found = new LongObjectMap<>();
+        final List<TileReactorCell> cells = new ArrayList<>();
+
+        found.put(start.getPos().toLong(), start);
+        cells.add(start);
+
+        // Flood fill through loaded cells only, the cells of a cluster always tick together.
+        for (int i = 0; i < cells.size(); i++) {
+            for (final EnumFacing side : EnumFacing.VALUES) {
+                final BlockPos checkPos = cells.get(i).getPos().offset(side);
+
+                if (!found.containsKey(checkPos.toLong()) && world.isBlockLoaded(checkPos)) {
+                    final TileEntity tile = world.getTileEntity(checkPos);
+
+                    if (tile instanceof TileReactorCell && !tile.isInvalid()) {
+                        found.put(checkPos.toLong(), (TileReactorCell) tile);
+                        cells.add((TileReactorCell) tile);
+                    }
+                }
+            }
+        }
+
+        final ReactorCluster cluster = new ReactorCluster(cells);
+
+        for (int i = 0; i < cluster.cells.length; i++) {
+            final BlockPos pos = cluster.cells[i].getPos();
+            final ReactorCluster previous = worldClusters.get(cluster.positions[i]);
+
+            // Cells that were part of another cluster have been merged into this one, which must not tick them twice.
+            if (previous != null) {
+                previous.dirty = true;
+                cluster.lastTick = Math.max(cluster.lastTick, previous.lastTick);
+            }
+
+            for (final EnumFacing side : EnumFacing.VALUES) {
+                final BlockPos checkPos = pos.offset(side);
+                final int slot = i * SIDES + side.ordinal();
+
+                if (found.containsKey(checkPos.toLong())) {
+                    cluster.sides[slot] = CELL;
+                    cluster.neighbors[slot] = cluster.indexOf(checkPos.toLong());
+                } else {
+                    cluster.sides[slot] = world.isBlockLoaded(checkPos) ? getKind(world.getBlockState(checkPos).getBlock()) : OTHER;
+                    cluster.neighbors[slot] = -1;
+
+                    // Only control rods beside a cell slow it down.
+                    if (cluster.sides[slot] == CONTROL_ROD && side.getAxis().isHorizontal()) {
+                        cluster.controlRods[i]++;
+                    }
+                }
+            }
+
+            worldClusters.put(cluster.positions[i], cluster);
+        }
+
+        for (int i = 0; i < cluster.cells.length; i++) {
+            final List<IReactor> reactors = new ArrayList<>();
+
+            for (int side = 0; side < SIDES; side++) {
+                final int neighbor = cluster.neighbors[i * SIDES + side];
+
+                if (neighbor >= 0) {
+                    reactors.add(cluster.cells[neighbor]);
+                }
+            }
+
+            cluster.neighborReactors.add(Collections.unmodifiableList(reactors));
+        }
+
+        // Cells that were just loaded catch up on the time they were unloaded, before any of them reads its temperature
+        // from the thermal grid again. Whether they breed is decided first, so it does not depend on their order.
+        final boolean[] breeding = new boolean[cluster.cells.length];
+
+        for (int i = 0; i < cluster.cells.length; i++) {
+            breeding[i] = cluster.isBreeding(i);
+        }
+
+        for (int i = 0; i < cluster.cells.length; i++) {
+            cluster.cells[i].catchUp(cluster, i, breeding[i]);
+        }
+
+        return cluster;
+    }
+
+    private int indexOf(final long pos) {
+        return Arrays.binarySearch(positions, pos);
+    }
+
+    /**
+     * @return true if enough cells beside the cell are hot for its fuel to breed, the same rule as
+     * ItemFissileFuel.onReact(), which is taken to hold for all the time the cell catches up on.
+     */
+    private boolean isBreeding(final int index) {
+        int reactors = 0;
+
+        for (final IReactor reactor : getNeighborReactors(index)) {
+            if (reactor.getTemperature() > ItemFissileFuel.breedingTemperature) {
+                reactors++;
+            }
+        }
+
+        return reactors >= 3;
+    }
+
+    /**
+     * Advances every cell of the cluster by one tick, unless that already happened this tick.
+     */
+    public void update(final World world) {
+        final long tick = world.getTotalWorldTime();
+
+        if (lastTick == tick) {
+            return;
+        }
+
+        lastTick = tick;
+
+        for (int i = 0; i < positions.length; i++) {
+            temperatures[i] = ThermalGrid.getTemperature(world, cells[i].getPos());
+        }
+
+        for (int i = 0; i < cells.length; i++) {
+            // A melting down cell might have destroyed the others, the cluster is rebuilt on the next tick.
+            if (dirty) {
+                break;
+            }
+
+            if (!cells[i].isInvalid()) {
+                cells[i].updateReactor(this, i);
+            }
+        }
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * @return the number of control rods beside the cell.
+     */
+    public int getControlRods(final int index) {
+        return controlRods[index];
+    }
+
+    /**
+     * @return the temperature of the cell at the start of this tick.
+     */
+    public double getTemperature(final int index) {
+        return temperatures[index];
+    }
+
+    /**
+     * @return the cells next to the cell.
+     */
+    public List<IReactor> getNeighborReactors(final int index) {
+        return neighborReactors.get(index);
+    }
+}
@@ -24,6 +24,7 @@ import org.halvors.nuclearphysics.common.init.ModSoundEvents;
 import org.halvors.nuclearphysics.common.multiblock.ElectricTurbineMultiBlockHandler;
 import org.halvors.nuclearphysics.common.multiblock.IMultiBlockStructure;
 import org.halvors.nuclearphysics.common.network.packet.PacketTileEntity;
+import org.halvors.nuclearphysics.common.science.reactor.TurbineModel;
 import org.halvors.nuclearphysics.common.tile.TileGenerator;
 
 import javax.annotation.Nonnull;
@@ -41,8 +42,6 @@ import java.util.Set;
 public class TileElectricTurbine extends TileGenerator implements IMultiBlockStructure<TileElectricTurbine>, IBoilHandler {
     private static final String NBT_MULTI_BLOCK_RADIUS = "multiBlockRadius";
     private static final String NBT_TANK = "tank";
-    private static final int ENERGY_PER_STEAM = 40;
-    private static final int DEFAULT_TORQUE = 5000;
 
     private final GasTank tank = new GasTank(Fluid.BUCKET_VOLUME * 16) {
         @Override
@@ -54,18 +53,17 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
     // Radius of large turbine?
     private int multiBlockRadius = 1;
 
-    // The power of the turbine this tick. In joules/tick
-    private int power = 0;
-
     // Max power in watts.
     private int maxPower = 128000;
 
+    // Power and angular velocity, the angular velocity is synced.
+    private final TurbineModel model = new TurbineModel(maxPower);
+
     // Current rotation of the turbine in radians.
     public float rotation = 0;
 
     public int tier = 0; // Synced
 
-    private float angularVelocity = 0; // Synced
     private float previousAngularVelocity = 0;
 
     // MutliBlock methods.
@@ -132,49 +130,40 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
     public void update() {
         super.update();
 
-        int torque = DEFAULT_TORQUE * 500;
-
-        if (getMultiBlock().isConstructed()) {
-            torque *= getArea();
-        }
+        final int torque = model.getTorque(getArea());
 
         getMultiBlock().update();
 
         if (getMultiBlock().isPrimary()) {
             if (!world.isRemote) {
                 // Increase spin rate and consume steam.
-                if (tank.getFluidAmount() > 0 && power < maxPower) {
-                    final FluidStack fluidStack = tank.drainInternal((int) Math.ceil(Math.min(tank.getFluidAmount() * 0.1, getMaxPower() / ENERGY_PER_STEAM)), true);
-
-                    if (fluidStack != null) {
-                        power += fluidStack.amount * ENERGY_PER_STEAM;
-                    }
-                }
+                final int steamDemand = model.getSteamDemand(tank.getFluidAmount(), getArea());
+                final FluidStack fluidStack = steamDemand > 0 ? tank.drainInternal(steamDemand, true) : null;
 
                 ////////////////////////////////////////////////////////////////////////////////////////////////////////
 
                 // Set angular velocity based on power and torque.
-                angularVelocity = (float) ((power * 4 * 256) / torque);
+                final float angularVelocity = model.consumeSteam(fluidStack != null ? fluidStack.amount : 0, getArea());
 
                 if (world.getWorldTime() % 3 == 0 && previousAngularVelocity != angularVelocity) {
                     NuclearPhysics.getPacketHandler().sendToReceivers(new PacketTileEntity(this), this);
                     previousAngularVelocity = angularVelocity;
                 }
 
-                if (power > 0) {
-                    energyStorage.receiveEnergy((int) (power * ConfigurationManager.General.turbineOutputMultiplier), false);
+                if (model.getPower() > 0) {
+                    energyStorage.receiveEnergy((int) (model.getPower() * ConfigurationManager.General.turbineOutputMultiplier), false);
                 }
-            } else if (angularVelocity != 0) {
+            } else if (model.getAngularVelocity() != 0) {
                 if (world.getWorldTime() % 26 == 0) {
                     // TODO: Tweak this volume, i suspect it is way to loud.
                     final double maxVelocity = (getMaxPower() / torque) * 4;
-                    final float percentage = Math.min(angularVelocity * 4 / (float) maxVelocity, 1);
+                    final float percentage = Math.min(model.getAngularVelocity() * 4 / (float) maxVelocity, 1);
 
                     world.playSound(null, pos, ModSoundEvents.ELECTRIC_TURBINE, SoundCategory.BLOCKS, percentage, 1);
                 }
 
                 // Update rotation.
-                rotation = (float) ((rotation + angularVelocity / 20) % (Math.PI * 2));
+                rotation = (float) ((rotation + model.getAngularVelocity() / 20) % (Math.PI * 2));
             }
         } else if (tank.getFluidAmount() > 0) {
             final int amount = getMultiBlock().get().tank.fillInternal(tank.getFluid(), false);
@@ -187,7 +176,7 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
                 NuclearPhysics.getPacketHandler().sendToReceivers(new PacketTileEntity(this), this);
             }
 
-            power = 0;
+            model.resetPower();
         }
     }
 
@@ -258,7 +247,7 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
         if (world.isRemote) {
             getMultiBlock().handlePacketData(dataStream);
             tier = dataStream.readInt();
-            angularVelocity = dataStream.readFloat();
+            model.setAngularVelocity(dataStream.readFloat());
             tank.handlePacketData(dataStream);
         }
     }
@@ -269,7 +258,7 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
 
         getMultiBlock().getPacketData(objects);
         objects.add(tier);
-        objects.add(angularVelocity);
+        objects.add(model.getAngularVelocity());
         tank.getPacketData(objects);
 
         return objects;
@@ -289,14 +278,13 @@ public class TileElectricTurbine extends TileGenerator implements IMultiBlockStr
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private int getMaxPower() {
-        if (getMultiBlock().isConstructed()) {
-            return maxPower * getArea();
-        }
-
-        return maxPower;
+        return model.getMaxPower(getArea());
     }
 
+    /**
+     * @return the area of the multiblock, or 1 if it is not constructed.
+     */
     private int getArea() {
-        return (int) ((multiBlockRadius + 0.5) * 2 * (multiBlockRadius + 0.5) * 2);
+        return getMultiBlock().isConstructed() ? TurbineModel.getArea(multiBlockRadius) : 1;
     }
 }
@@ -2,7 +2,6 @@ package org.halvors.nuclearphysics.common.tile.reactor;
 
 import io.netty.buffer.ByteBuf;
 import net.minecraft.block.Block;
-import net.minecraft.entity.EntityLiving;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -10,7 +9,6 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.SoundCategory;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
@@ -27,14 +25,19 @@ import org.halvors.nuclearphysics.api.tile.IReactor;
 import org.halvors.nuclearphysics.common.NuclearPhysics;
 import org.halvors.nuclearphysics.common.capabilities.fluid.LiquidTank;
 import org.halvors.nuclearphysics.common.effect.explosion.ReactorExplosion;
+import org.halvors.nuclearphysics.common.effect.radiation.RadiationField;
 import org.halvors.nuclearphysics.common.event.PlasmaEvent.PlasmaSpawnEvent;
 import org.halvors.nuclearphysics.common.init.ModBlocks;
 import org.halvors.nuclearphysics.common.init.ModFluids;
-import org.halvors.nuclearphysics.common.init.ModPotions;
 import org.halvors.nuclearphysics.common.init.ModSoundEvents;
+import org.halvors.nuclearphysics.common.item.reactor.fission.ItemFissileFuel;
 import org.halvors.nuclearphysics.common.network.packet.PacketTileEntity;
 import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IHeatSource;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSimulation;
 import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
+import org.halvors.nuclearphysics.common.science.reactor.ReactorCellModel;
+import org.halvors.nuclearphysics.common.tile.OfflineTimer;
 import org.halvors.nuclearphysics.common.tile.TileRotatable;
 import org.halvors.nuclearphysics.common.tile.reactor.fusion.TilePlasma;
 import org.halvors.nuclearphysics.common.utility.InventoryUtility;
@@ -44,27 +47,33 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 
-public class TileReactorCell extends TileRotatable implements ITickable, IReactor {
+public class TileReactorCell extends TileRotatable implements ITickable, IReactor, IHeatSource {
     private static final String NBT_TEMPERATURE = "temperature";
     private static final String NBT_SLOTS = "slots";
     private static final String NBT_TANK = "tank";
     private static final int RADIUS = 2;
-    public static final int MELTING_POINT = 2000;
+    public static final int MELTING_POINT = ReactorCellModel.MELTING_POINT;
 
     private String name;
 
-    private final int specificHeatCapacity = 1000;
-    private final double mass = ThermalPhysics.getMass(1000, 7);
-
     private double temperature = ThermalPhysics.ROOM_TEMPERATURE; // Synced
     private double previousTemperature = temperature;
 
     private boolean shouldUpdate = false;
 
-    private long internalEnergy = 0;
-    private long previousInternalEnergy = 0;
-    private int meltdownCounter = 0;
-    private int meltdownCounterMaximum = 1000;
+    private final ReactorCellModel model = new ReactorCellModel();
+    private final OfflineTimer offlineTimer = new OfflineTimer();
+
+    // Temperature released since the last thermal step, the cell is a heat source of the thermal grid while it reacts.
+    private double releasedTemperature;
+    private boolean isHeatSource;
+
+    // The cluster this cell was last updated by, and its index in it.
+    private ReactorCluster cluster;
+    private int clusterIndex;
+
+    // Set while a cell notifies its neighbours after syncing, which changes nothing about what is next to them.
+    private static boolean syncing;
 
     private final IItemHandlerModifiable inventory = new ItemStackHandler(1) {
         @Override
@@ -120,6 +129,7 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
         super.readFromNBT(tag);
 
         temperature = tag.getDouble(NBT_TEMPERATURE);
+        offlineTimer.readFromNBT(tag);
         InventoryUtility.readFromNBT(tag, inventory);
 
         CapabilityItemHandler.ITEM_HANDLER_CAPABILITY.readNBT(inventory, null, tag.getTag(NBT_SLOTS));
@@ -132,12 +142,44 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
         super.writeToNBT(tag);
 
         tag.setDouble(NBT_TEMPERATURE, temperature);
+        offlineTimer.writeToNBT(tag, world);
         tag.setTag(NBT_SLOTS, CapabilityItemHandler.ITEM_HANDLER_CAPABILITY.writeNBT(inventory, null));
         tag.setTag(NBT_TANK, CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY.writeNBT(tank, null));
 
         return tag;
     }
 
+    @Override
+    @Nonnull
+    public NBTTagCompound getUpdateTag() {
+        final NBTTagCompound tag = super.getUpdateTag();
+
+        // Only the save to disk needs to know when the cell was saved.
+        OfflineTimer.removeFromNBT(tag);
+
+        return tag;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+
+        if (!world.isRemote) {
+            ReactorCluster.invalidate(world, pos);
+            removeHeatSource();
+        }
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+
+        if (!world.isRemote) {
+            ReactorCluster.invalidate(world, pos);
+            removeHeatSource();
+        }
+    }
+
     @Override
     public boolean hasCapability(@Nonnull final Capability<?> capability, @Nullable final EnumFacing facing) {
         return capability == CapabilityItemHandler.ITEM_HANDLER_CAPABILITY || capability == CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY || super.hasCapability(capability, facing);
@@ -167,135 +209,156 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
         }
 
         if (!world.isRemote) {
-            final FluidStack fluidStack = tank.getFluid();
-
-            // Nuclear fusion.
-            if (fluidStack != null && fluidStack.isFluidEqual(ModFluids.fluidStackPlasma)) {
-                final FluidStack drain = tank.drainInternal(Fluid.BUCKET_VOLUME, false);
-
-                if (drain != null && drain.amount >= Fluid.BUCKET_VOLUME) {
-                    final EnumFacing spawnDir = EnumFacing.getFront(world.rand.nextInt(4) + 2);
-                    final BlockPos spawnPos = pos.offset(spawnDir, 2);
-
-                    if (world.isAirBlock(spawnPos)) {
-                    	final PlasmaSpawnEvent event = new PlasmaSpawnEvent(world, spawnPos, TilePlasma.PLASMA_MAX_TEMPERATURE);
-                        MinecraftForge.EVENT_BUS.post(event);
-
-                        // Spawn plasma.
-                        if (!event.isCanceled()) {
-                        	world.setBlockState(spawnPos, ModFluids.plasma.getBlock().getDefaultState(), 2);
-                        	tank.drainInternal(Fluid.BUCKET_VOLUME, true);
-                        }
-                    } else {
-                    	final TileEntity tile = world.getTileEntity(spawnPos);
-
-                        // Do plasma boost.
-                    	if (tile instanceof TilePlasma) {
-                    	    final TilePlasma tilePlasma = (TilePlasma) tile;
-                            final int increaseTemperature = TilePlasma.PLASMA_MAX_TEMPERATURE / 10;
-
-                    		if (TilePlasma.PLASMA_MAX_TEMPERATURE - tilePlasma.getTemperature() > increaseTemperature) {
-                                tilePlasma.setTemperature(tilePlasma.getTemperature() + increaseTemperature);
-                    			tank.drain(100, true);
-                    		}
-                    	}
-                    }
+            // All connected cells are updated at once, by the first of them to tick.
+            ReactorCluster.getCluster(this).update(world);
+        }
+    }
+
+    /**
+     * Advances the fuel rod by the ticks missed while the chunk of the cell was unloaded, called by the cluster when
+     * the cell joins it. The thermal grid is not simulated for unloaded chunks, so the cell is not heated by them.
+     */
+    void catchUp(final ReactorCluster cluster, final int index, final boolean breeding) {
+        this.cluster = cluster;
+        this.clusterIndex = index;
+
+        final long missedTicks = offlineTimer.getMissedTicks(world);
+        final FluidStack fluidStack = tank.getFluid();
+
+        if (missedTicks > 0 && (fluidStack == null || !fluidStack.isFluidEqual(ModFluids.fluidStackPlasma))) {
+            final ItemStack fuelRod = inventory.getStackInSlot(0);
+
+            if (fuelRod != null && fuelRod.getItem() instanceof IReactorComponent) {
+                ((IReactorComponent) fuelRod.getItem()).onCatchUp(fuelRod, this, missedTicks, breeding && temperature > ItemFissileFuel.breedingTemperature);
+
+                if (fuelRod.getMetadata() >= fuelRod.getMaxDamage()) {
+                    inventory.setStackInSlot(0, null);
                 }
-            } else { // Nuclear fission.
-                previousInternalEnergy = internalEnergy;
+            }
+        }
+    }
+
+    /**
+     * Runs the reactor for one tick, called by the cluster this cell is part of.
+     */
+    void updateReactor(final ReactorCluster cluster, final int index) {
+        this.cluster = cluster;
+        this.clusterIndex = index;
 
-                // Handle cell rod interactions.
-                final ItemStack fuelRod = inventory.getStackInSlot(0);
+        final FluidStack fluidStack = tank.getFluid();
 
-                if (fuelRod != null && fuelRod.getItem() instanceof IReactorComponent) {
-                    // Activate rods.
-                    final IReactorComponent reactorComponent = (IReactorComponent) fuelRod.getItem();
-                    reactorComponent.onReact(fuelRod, this);
+        // Nuclear fusion.
+        if (fluidStack != null && fluidStack.isFluidEqual(ModFluids.fluidStackPlasma)) {
+            final FluidStack drain = tank.drainInternal(Fluid.BUCKET_VOLUME, false);
 
-                    if (fuelRod.getMetadata() >= fuelRod.getMaxDamage()) {
-                        inventory.setStackInSlot(0, null);
-                    }
-                    
-                    // Emit radiation.
-                    if (world.getTotalWorldTime() % 40 == 0) {
-                        final List<EntityLiving> entities = world.getEntitiesWithinAABB(EntityLiving.class, new AxisAlignedBB(pos.getX() - RADIUS * 2, pos.getY() - RADIUS * 2, pos.getZ() - RADIUS * 2, pos.getX() + RADIUS * 2, pos.getY() + RADIUS * 2, pos.getZ() + RADIUS * 2));
-
-                        for (EntityLiving entity : entities) {
-                            if (world.rand.nextFloat() < (1F / Math.abs(entity.getDistance(pos.getX(), pos.getY(), pos.getZ())))) {
-                                ModPotions.poisonRadiation.poisonEntity(entity);
-                            }
-                        }
+            if (drain != null && drain.amount >= Fluid.BUCKET_VOLUME) {
+                final EnumFacing spawnDir = EnumFacing.getFront(world.rand.nextInt(4) + 2);
+                final BlockPos spawnPos = pos.offset(spawnDir, 2);
+
+                if (world.isAirBlock(spawnPos)) {
+                	final PlasmaSpawnEvent event = new PlasmaSpawnEvent(world, spawnPos, TilePlasma.PLASMA_MAX_TEMPERATURE);
+                    MinecraftForge.EVENT_BUS.post(event);
+
+                    // Spawn plasma.
+                    if (!event.isCanceled()) {
+                    	world.setBlockState(spawnPos, ModFluids.plasma.getBlock().getDefaultState(), 2);
+                    	tank.drainInternal(Fluid.BUCKET_VOLUME, true);
                     }
+                } else {
+                	final TileEntity tile = world.getTileEntity(spawnPos);
+
+                    // Do plasma boost.
+                	if (tile instanceof TilePlasma) {
+                	    final TilePlasma tilePlasma = (TilePlasma) tile;
+                        final int increaseTemperature = TilePlasma.PLASMA_MAX_TEMPERATURE / 10;
+
+                		if (TilePlasma.PLASMA_MAX_TEMPERATURE - tilePlasma.getTemperature() > increaseTemperature) {
+                            tilePlasma.setTemperature(tilePlasma.getTemperature() + increaseTemperature);
+                			tank.drain(100, true);
+                		}
+                	}
                 }
+            }
+        } else { // Nuclear fission.
+            model.beginTick();
 
-                // Update the temperature from the thermal grid.
-                temperature = ThermalGrid.getTemperature(world, pos);
+            // Handle cell rod interactions.
+            final ItemStack fuelRod = inventory.getStackInSlot(0);
 
-                // Only a small percentage of the internal energy is used for temperature.
-                if ((internalEnergy - previousInternalEnergy) > 0) {
-                    double deltaTemperature = ThermalPhysics.getTemperatureForEnergy(mass, specificHeatCapacity, (long) ((internalEnergy - previousInternalEnergy) * 0.15));
+            if (fuelRod != null && fuelRod.getItem() instanceof IReactorComponent) {
+                // Activate rods.
+                final IReactorComponent reactorComponent = (IReactorComponent) fuelRod.getItem();
+                reactorComponent.onReact(fuelRod, this);
 
-                    // Check control rods.
-                    for (EnumFacing side : EnumFacing.HORIZONTALS) {
-                        final BlockPos checkPos = pos.offset(side);
+                if (fuelRod.getMetadata() >= fuelRod.getMaxDamage()) {
+                    inventory.setStackInSlot(0, null);
+                }
+                
+                // Emit radiation, at half the chance it used to have every 40 ticks.
+                if (world.getTotalWorldTime() % RadiationField.INTERVAL == 0) {
+                    RadiationField.emit(world, pos.getX(), pos.getY(), pos.getZ(), RADIUS * 2, 0, 0.5F, true);
+                }
+            }
 
-                        if (world.getBlockState(checkPos).getBlock() == ModBlocks.blockControlRod) {
-                            deltaTemperature /= 2;
-                        }
-                    }
+            // Update the temperature from the thermal grid, read by the cluster at the start of the tick.
+            temperature = cluster.getTemperature(index);
 
-                    // Add heat to surrounding blocks in the thermal grid.
-                    ThermalGrid.addTemperature(world, pos, deltaTemperature);
+            if (model.isReacting()) {
+                // Heat surrounding blocks on the next thermal step, slowed down by the control rods beside the cell.
+                releasedTemperature += model.getDeltaTemperature(getControlRods());
 
-                    if (previousTemperature != temperature && !shouldUpdate) {
-                        shouldUpdate = true;
-                        previousTemperature = temperature;
-                    }
+                if (!isHeatSource) {
+                    isHeatSource = true;
+                    ThermalGrid.addHeatSource(world, this);
+                }
 
-                    // If temperature is over the melting point of the reactor, either increase counter or melt down.
-                    if (previousTemperature >= MELTING_POINT) {
-                        if (meltdownCounter < meltdownCounterMaximum) {
-                            meltdownCounter++;
-                            shouldUpdate = true;
-                        } else {
-                            meltdownCounter = 0;
-                            meltDown();
-
-                            return;
-                        }
-                    }
+                if (previousTemperature != temperature && !shouldUpdate) {
+                    shouldUpdate = true;
+                    previousTemperature = temperature;
+                }
 
-                    // If reactor temperature is below melting point and meltdownCounter is over 0, decrease it.
-                    if (previousTemperature < MELTING_POINT && meltdownCounter > 0) {
-                        meltdownCounter--;
-                    }
+                // If temperature is over the melting point of the reactor, either increase counter or melt down.
+                if (previousTemperature >= MELTING_POINT) {
+                    shouldUpdate = true;
                 }
 
-                internalEnergy = 0;
+                if (model.updateMeltdown(previousTemperature)) {
+                    meltDown();
+
+                    return;
+                }
+            }
 
-                if (isOverToxic()) {
-                    // Randomly leak toxic waste when it is too toxic.
-                    final BlockPos leakPos = pos.add(world.rand.nextInt(20) - 10, world.rand.nextInt(20) - 10, world.rand.nextInt(20) - 10);
-                    final Block block = world.getBlockState(leakPos).getBlock();
+            model.endTick();
 
-                    if (block == Blocks.GRASS) {
-                        world.setBlockState(leakPos, ModBlocks.blockRadioactiveGrass.getDefaultState());
+            if (isOverToxic()) {
+                // Randomly leak toxic waste when it is too toxic.
+                final BlockPos leakPos = pos.add(world.rand.nextInt(20) - 10, world.rand.nextInt(20) - 10, world.rand.nextInt(20) - 10);
+                final Block block = world.getBlockState(leakPos).getBlock();
+
+                if (block == Blocks.GRASS) {
+                    world.setBlockState(leakPos, ModBlocks.blockRadioactiveGrass.getDefaultState());
+                    tank.drainInternal(Fluid.BUCKET_VOLUME, true);
+                } else if (world.isAirBlock(leakPos) || block.isReplaceable(world, leakPos)) {
+                    if (fluidStack != null) {
+                        world.setBlockState(leakPos, fluidStack.getFluid().getBlock().getDefaultState());
                         tank.drainInternal(Fluid.BUCKET_VOLUME, true);
-                    } else if (world.isAirBlock(leakPos) || block.isReplaceable(world, leakPos)) {
-                        if (fluidStack != null) {
-                            world.setBlockState(leakPos, fluidStack.getFluid().getBlock().getDefaultState());
-                            tank.drainInternal(Fluid.BUCKET_VOLUME, true);
-                        }
                     }
                 }
             }
+        }
 
-            if (world.getTotalWorldTime() % 60 == 0 || shouldUpdate) {
-                shouldUpdate = false;
-                world.notifyNeighborsOfStateChange(pos, getBlockType());
+        if (world.getTotalWorldTime() % 60 == 0 || shouldUpdate) {
+            shouldUpdate = false;
 
-                NuclearPhysics.getPacketHandler().sendToReceivers(new PacketTileEntity(this), this);
+            try {
+                syncing = true;
+                world.notifyNeighborsOfStateChange(pos, getBlockType());
+            } finally {
+                syncing = false;
             }
+
+            NuclearPhysics.getPacketHandler().sendToReceivers(new PacketTileEntity(this), this);
         }
     }
 
@@ -325,7 +388,22 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
 
     @Override
     public void heat(final long energy) {
-        internalEnergy = Math.max(internalEnergy + energy, 0);
+        model.heat(energy);
+    }
+
+    @Override
+    public boolean emitHeat(final ThermalSimulation simulation) {
+        // Cells that stopped reacting are added again once they react.
+        if (releasedTemperature == 0) {
+            isHeatSource = false;
+
+            return false;
+        }
+
+        simulation.addTemperature(pos.toLong(), releasedTemperature);
+        releasedTemperature = 0;
+
+        return true;
     }
 
     @Override
@@ -350,6 +428,16 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
         return world;
     }
 
+    @Override
+    public int getControlRods() {
+        return cluster != null ? cluster.getControlRods(clusterIndex) : IReactor.super.getControlRods();
+    }
+
+    @Override
+    public List<IReactor> getNeighborReactors() {
+        return cluster != null ? cluster.getNeighborReactors(clusterIndex) : IReactor.super.getNeighborReactors();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     public String getName() {
@@ -364,6 +452,21 @@ public class TileReactorCell extends TileRotatable implements ITickable, IReacto
         return inventory;
     }
 
+    /**
+     * @return whether a cell is notifying its neighbours after syncing, rather than because it was placed or removed.
+     */
+    public static boolean isSyncing() {
+        return syncing;
+    }
+
+    private void removeHeatSource() {
+        if (isHeatSource) {
+            isHeatSource = false;
+            releasedTemperature = 0;
+            ThermalGrid.removeHeatSource(world, this);
+        }
+    }
+
     private void meltDown() {
         // Make sure the reactor block is destroyed.
         world.setBlockToAir(pos);
@@ -7,6 +7,7 @@ import net.minecraft.util.math.BlockPos;
 import org.halvors.nuclearphysics.common.NuclearPhysics;
 import org.halvors.nuclearphysics.common.network.packet.PacketTileEntity;
 import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalRegion;
 import org.halvors.nuclearphysics.common.science.physics.ThermalPhysics;
 import org.halvors.nuclearphysics.common.tile.TileRotatable;
 import org.halvors.nuclearphysics.common.utility.VectorUtility;
@@ -17,11 +18,15 @@ import java.util.List;
 public class TileThermometer extends TileRotatable implements ITickable {
     private static final String NBT_THRESHOLD = "threshold";
     private static final String NBT_TRACK_COORDINATE = "trackCoordinate";
+    private static final String NBT_TRACK_AREA_CORNER = "trackAreaCorner";
     private static final int MAX_THRESHOLD = 5000;
 
     private double detectedTemperature = ThermalPhysics.ROOM_TEMPERATURE; // Synced
     private double previousDetectedTemperature = detectedTemperature;
+    private double averageTemperature = detectedTemperature; // Synced
+    private double previousAverageTemperature = averageTemperature;
     private BlockPos trackCoordinate = null; // Synced
+    private BlockPos trackAreaCorner = null; // Synced
     private int threshold = 1000; // Synced
     public boolean isProvidingPower = false;
 
@@ -38,6 +43,10 @@ public class TileThermometer extends TileRotatable implements ITickable {
         if (tag.hasKey(NBT_TRACK_COORDINATE)) {
             trackCoordinate = VectorUtility.readFromNBT(tag.getCompoundTag(NBT_TRACK_COORDINATE));
         }
+
+        if (tag.hasKey(NBT_TRACK_AREA_CORNER)) {
+            trackAreaCorner = VectorUtility.readFromNBT(tag.getCompoundTag(NBT_TRACK_AREA_CORNER));
+        }
     }
 
     @Override
@@ -51,6 +60,10 @@ public class TileThermometer extends TileRotatable implements ITickable {
             tag.setTag(NBT_TRACK_COORDINATE, VectorUtility.writeToNBT(trackCoordinate, new NBTTagCompound()));
         }
 
+        if (trackAreaCorner != null) {
+            tag.setTag(NBT_TRACK_AREA_CORNER, VectorUtility.writeToNBT(trackAreaCorner, new NBTTagCompound()));
+        }
+
         return tag;
     }
 
@@ -59,16 +72,26 @@ public class TileThermometer extends TileRotatable implements ITickable {
     @Override
     public void update() {
         if (!world.isRemote && world.getWorldTime() % 10 == 0) {
-            // Grab temperature from target or from ourselves.
-            if (trackCoordinate != null) {
+            // Grab temperature from target area, target or from ourselves.
+            if (isTrackingArea()) {
+                final ThermalRegion region = ThermalGrid.getRegion(world, trackCoordinate, trackAreaCorner);
+                final double ambientTemperature = ThermalGrid.getDefaultTemperature(world, trackCoordinate);
+
+                // Report the hottest block, so that the redstone signal covers everything in the area.
+                detectedTemperature = region.getMaxTemperature(ambientTemperature);
+                averageTemperature = region.getAverageTemperature(ambientTemperature);
+            } else if (trackCoordinate != null) {
                 detectedTemperature = ThermalGrid.getTemperature(world, trackCoordinate);
+                averageTemperature = detectedTemperature;
             } else {
                 detectedTemperature = ThermalGrid.getTemperature(world, pos);
+                averageTemperature = detectedTemperature;
             }
 
             // Send update packet if temperature is different or over temperature threshold.
-            if (detectedTemperature != previousDetectedTemperature || isProvidingPower != isOverThreshold()) {
+            if (detectedTemperature != previousDetectedTemperature || averageTemperature != previousAverageTemperature || isProvidingPower != isOverThreshold()) {
                 previousDetectedTemperature = detectedTemperature;
+                previousAverageTemperature = averageTemperature;
                 isProvidingPower = isOverThreshold();
 
                 world.notifyNeighborsOfStateChange(pos, getBlockType());
@@ -90,7 +113,14 @@ public class TileThermometer extends TileRotatable implements ITickable {
                 trackCoordinate = VectorUtility.handlePacketData(dataStream);
             }
 
+            if (dataStream.readBoolean()) {
+                trackAreaCorner = VectorUtility.handlePacketData(dataStream);
+            } else {
+                trackAreaCorner = null;
+            }
+
             detectedTemperature = dataStream.readDouble();
+            averageTemperature = dataStream.readDouble();
         }
     }
 
@@ -107,7 +137,15 @@ public class TileThermometer extends TileRotatable implements ITickable {
             objects.add(false);
         }
 
+        if (trackAreaCorner != null) {
+            objects.add(true);
+            VectorUtility.getPacketData(trackAreaCorner, objects);
+        } else {
+            objects.add(false);
+        }
+
         objects.add(detectedTemperature);
+        objects.add(averageTemperature);
 
         return objects;
     }
@@ -122,6 +160,21 @@ public class TileThermometer extends TileRotatable implements ITickable {
         this.trackCoordinate = trackCoordinate;
     }
 
+    public BlockPos getTrackAreaCorner() {
+        return trackAreaCorner;
+    }
+
+    public void setTrackAreaCorner(final BlockPos trackAreaCorner) {
+        this.trackAreaCorner = trackAreaCorner;
+    }
+
+    /**
+     * @return whether the thermometer reads the box between the track coordinate and the area corner.
+     */
+    public boolean isTrackingArea() {
+        return trackCoordinate != null && trackAreaCorner != null;
+    }
+
     public int getThershold() {
         return threshold;
     }
@@ -138,6 +191,13 @@ public class TileThermometer extends TileRotatable implements ITickable {
         return detectedTemperature;
     }
 
+    /**
+     * @return the average temperature of the tracked area, or the detected temperature when not tracking one.
+     */
+    public double getAverageTemperature() {
+        return averageTemperature;
+    }
+
     public boolean isOverThreshold() {
         return detectedTemperature >= getThershold();
     }
@@ -10,15 +10,18 @@ import net.minecraftforge.common.MinecraftForge;
 import org.halvors.nuclearphysics.common.event.PlasmaEvent.PlasmaSpawnEvent;
 import org.halvors.nuclearphysics.common.init.ModFluids;
 import org.halvors.nuclearphysics.common.science.grid.ThermalGrid;
+import org.halvors.nuclearphysics.common.science.grid.thermal.IHeatSource;
+import org.halvors.nuclearphysics.common.science.grid.thermal.ThermalSimulation;
 import org.halvors.nuclearphysics.common.tile.TileBase;
 
 import javax.annotation.Nonnull;
 
-public class TilePlasma extends TileBase implements ITickable {
+public class TilePlasma extends TileBase implements ITickable, IHeatSource {
     private static final String NBT_TEMPERATURE = "temperature";
     public static final int PLASMA_MAX_TEMPERATURE = 1000000;
 
     private int temperature = PLASMA_MAX_TEMPERATURE;
+    private boolean isHeatSource;
 
     public TilePlasma() {
 
@@ -41,12 +44,33 @@ public class TilePlasma extends TileBase implements ITickable {
         return tag;
     }
 
+    @Override
+    public void invalidate() {
+        super.invalidate();
+
+        if (!world.isRemote) {
+            removeHeatSource();
+        }
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+
+        if (!world.isRemote) {
+            removeHeatSource();
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
     public void update() {
         if (!world.isRemote) {
-            ThermalGrid.addTemperature(world, pos, (temperature - ThermalGrid.getTemperature(world, pos)) * 0.1);
+            if (!isHeatSource) {
+                isHeatSource = true;
+                ThermalGrid.addHeatSource(world, this);
+            }
 
             if (world.getWorldTime() % 20 == 0) {
                 temperature /= 1.5;
@@ -93,6 +117,25 @@ public class TilePlasma extends TileBase implements ITickable {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    public boolean emitHeat(final ThermalSimulation simulation) {
+        final long key = pos.toLong();
+
+        // Pulls the block towards the temperature of the plasma.
+        simulation.addTemperature(key, (temperature - simulation.getTemperature(key)) * 0.1);
+
+        return true;
+    }
+
+    private void removeHeatSource() {
+        if (isHeatSource) {
+            isHeatSource = false;
+            ThermalGrid.removeHeatSource(world, this);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     public int getTemperature() {
         return temperature;
     }
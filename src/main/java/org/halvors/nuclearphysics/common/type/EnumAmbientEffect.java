@@ -0,0 +1,58 @@
+package org.halvors.nuclearphysics.common.type;
+
+import net.minecraft.init.SoundEvents;
+import net.minecraft.util.EnumParticleTypes;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Random;
+
+/*
+ * Effects sent to clients in bulk by the AmbientEffectAggregator, every client rolls for the particles and sounds of
+ * an effect itself.
+ */
+public enum EnumAmbientEffect {
+    BOILING;
+
+    /**
+     * Displays the effect at the position.
+     *
+     * @param weight - the number of effects this one stands for, which scales the chance of every particle and sound.
+     */
+    @SideOnly(Side.CLIENT)
+    public void display(final World world, final BlockPos pos, final float weight) {
+        final Random random = world.rand;
+
+        if (this == EnumAmbientEffect.BOILING) {
+            // Sound of lava flowing randomly plays when above temperature to boil water.
+            for (int i = roll(random, weight / 2000); i > 0; i--) {
+                world.playSound(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, SoundEvents.BLOCK_LAVA_AMBIENT, SoundCategory.BLOCKS, 0.5F, 2.1F + (random.nextFloat() - random.nextFloat()) * 0.85F, false);
+            }
+
+            // Sounds of lava popping randomly plays when above temperature to boil water.
+            for (int i = roll(random, weight / 4000); i > 0; i--) {
+                world.playSound(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, SoundEvents.BLOCK_LAVA_POP, SoundCategory.BLOCKS, 0.5F, 2.6F + (random.nextFloat() - random.nextFloat()) * 0.8F, false);
+            }
+
+            for (int i = roll(random, weight / 5); i > 0; i--) {
+                world.spawnParticle(EnumParticleTypes.WATER_BUBBLE, pos.getX() + random.nextFloat(), pos.getY() + 0.5, pos.getZ() + random.nextFloat(), 0, 0.05, 0);
+            }
+
+            for (int i = roll(random, weight / 50); i > 0; i--) {
+                world.spawnParticle(EnumParticleTypes.CLOUD, pos.getX() + random.nextFloat(), pos.getY() + 1.2, pos.getZ() + random.nextFloat(), 0, 0.1, 0);
+            }
+        }
+    }
+
+    /**
+     * @return how many times something with the given expected number of occurrences happens.
+     */
+    private static int roll(final Random random, final float chance) {
+        final int times = (int) chance;
+
+        return random.nextFloat() < chance - times ? times + 1 : times;
+    }
+}
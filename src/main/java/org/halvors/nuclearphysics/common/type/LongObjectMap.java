@@ -0,0 +1,193 @@
+package org.halvors.nuclearphysics.common.type;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+ * A small open addressing hash map with primitive long keys, used where boxing every key would be too expensive.
+ */
+public class LongObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(final int initialCapacity) {
+        int capacity = 16;
+
+        while (capacity * LOAD_FACTOR < initialCapacity) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(final long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private int indexOf(final long key) {
+        int index = hash(key) & mask;
+
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        final int index = indexOf(key);
+
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    public boolean containsKey(final long key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final V value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+
+        int index = hash(key) & mask;
+
+        while (used[index]) {
+            if (keys[index] == key) {
+                final V previous = (V) values[index];
+                values[index] = value;
+
+                return previous;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        int index = indexOf(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        final V previous = (V) values[index];
+        size--;
+
+        // Shift following entries of the probe sequence back, so that lookups never hit a hole.
+        int next = (index + 1) & mask;
+
+        while (used[next]) {
+            final int ideal = hash(keys[next]) & mask;
+
+            if (((next - ideal) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        used[index] = false;
+        values[index] = null;
+
+        return previous;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final boolean[] oldUsed = used;
+
+        allocate(capacity);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = hash(oldKeys[i]) & mask;
+
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Copies the keys into a new array, so that the map can be safely modified while they are processed.
+     *
+     * @return all keys currently in this map.
+     */
+    public long[] keys() {
+        final long[] result = new long[size];
+        int count = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[count++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(final Consumer<V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (used[i]) {
+                consumer.accept((V) values[i]);
+            }
+        }
+    }
+}
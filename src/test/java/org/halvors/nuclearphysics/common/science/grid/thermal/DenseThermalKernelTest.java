@@ -0,0 +1,79 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DenseThermalKernelTest {
+    private static ThermalSnapshot createSnapshot(final long seed, final double density) {
+        final Random random = new Random(seed);
+        final long[] positions = new long[32 * 32 * 32];
+        int count = 0;
+
+        for (int x = -16; x < 16; x++) {
+            for (int y = 0; y < 32; y++) {
+                for (int z = -16; z < 16; z++) {
+                    if (random.nextDouble() < density) {
+                        positions[count++] = ThermalStorage.pack(x, y, z);
+                    }
+                }
+            }
+        }
+
+        final long[] hot = Arrays.copyOf(positions, count);
+        Arrays.sort(hot);
+
+        // The snapshot also holds the neighbours of every hot block, at ambient temperature.
+        final ThermalSnapshot snapshot = new ThermalSnapshot(hot);
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            final boolean active = Arrays.binarySearch(hot, snapshot.getPosition(i)) >= 0;
+
+            snapshot.setCell(i, active ? 300 + random.nextDouble() * 2000 : 300, 300, random.nextDouble() * 0.01, 0.5 + random.nextDouble(), active ? -random.nextDouble() : 0, active);
+        }
+
+        return snapshot;
+    }
+
+    @Test
+    public void matchesSolveCell() {
+        final ThermalSnapshot snapshot = createSnapshot(0, 0.75);
+        final int size = snapshot.size();
+        final double[] previous = new double[size];
+        final double[] expected = new double[size];
+        final double[] result = new double[size];
+        final boolean[] dense = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            previous[i] = snapshot.getTemperature(i) + (snapshot.isActive(i) ? snapshot.getRelaxation(i) : 0);
+        }
+
+        for (int i = 0; i < size; i++) {
+            expected[i] = ExplicitThermalSolver.solveCell(snapshot, previous, i);
+        }
+
+        final int[][] sections = DenseThermalKernel.getDenseSections(snapshot, 0, dense);
+        final DenseThermalKernel kernel = new DenseThermalKernel();
+
+        for (final int[] cells : sections) {
+            kernel.solve(snapshot, previous, result, cells);
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertTrue(dense[i]);
+            assertEquals(expected[i], result[i], 0);
+        }
+    }
+
+    @Test
+    public void denseSolverMatchesSparseSolver() {
+        final ThermalSnapshot snapshot = createSnapshot(1, 0.5);
+
+        assertArrayEquals(new ExplicitThermalSolver(DenseThermalKernel.DISABLED).solve(snapshot), new ExplicitThermalSolver(1024).solve(snapshot), 0);
+    }
+}
@@ -0,0 +1,159 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExplicitThermalSolverTest {
+    private static final double EPSILON = 1.0E-9;
+    private static final double AMBIENT_TEMPERATURE = 300;
+
+    private static final int STEPS = 20;
+
+    // The in-place update lets a cell see the heat its earlier neighbours spread the same step, the explicit solver
+    // does not. On this world that never moves a temperature by more than 1.25% of the 2000 K the cube starts with.
+    private static final double SEQUENTIAL_TOLERANCE = 25;
+
+    // A hand-built layout: x, y, z, temperature, conductivity, heat capacity, relaxation and whether it is active.
+    private static final double[][] LAYOUT = {
+        { 0, 64, 0, 1000, 0.10, 1.0, -20, 1 },
+        { 1, 64, 0, 500, 0.05, 2.0, -5, 1 },
+        { 2, 64, 0, 800, 0.20, 0.5, 0, 0 },
+        { 0, 65, 0, 400, 0.15, 1.5, -1, 1 },
+        { 1, 65, 0, 1200, 0.01, 4.0, -40, 1 }
+    };
+
+    private static final double NEIGHBOR_CONDUCTIVITY = 0.08;
+    private static final double NEIGHBOR_HEAT_CAPACITY = 1.0;
+
+    private static long getPosition(final double[] cell) {
+        return ThermalStorage.pack((int) cell[0], (int) cell[1], (int) cell[2]);
+    }
+
+    private static ThermalSnapshot createSnapshot() {
+        final long[] active = new long[LAYOUT.length];
+
+        for (int i = 0; i < LAYOUT.length; i++) {
+            active[i] = getPosition(LAYOUT[i]);
+        }
+
+        Arrays.sort(active);
+
+        final ThermalSnapshot snapshot = new ThermalSnapshot(active);
+
+        // The blocks around the layout are at ambient temperature and only receive heat.
+        for (int i = 0; i < snapshot.size(); i++) {
+            snapshot.setCell(i, AMBIENT_TEMPERATURE, AMBIENT_TEMPERATURE, NEIGHBOR_CONDUCTIVITY, NEIGHBOR_HEAT_CAPACITY, 0, false);
+        }
+
+        for (final double[] cell : LAYOUT) {
+            snapshot.setCell(snapshot.indexOf(getPosition(cell)), cell[3], AMBIENT_TEMPERATURE, cell[4], cell[5], cell[6], cell[7] != 0);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Jacobi iteration written out face by face, without the solver or the neighbour lookup of the snapshot. Heat
+     * leaves every active cell towards colder neighbours, at the conductivity of the neighbour, and each side divides
+     * it by its own heat capacity.
+     */
+    private static double[] solveReference(final ThermalSnapshot snapshot) {
+        final int size = snapshot.size();
+        final Map<Long, Integer> indices = new HashMap<>();
+        final double[] previous = new double[size];
+        final double[] heat = new double[size];
+        final double[] result = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            indices.put(snapshot.getPosition(i), i);
+            previous[i] = snapshot.getTemperature(i) + (snapshot.isActive(i) ? snapshot.getRelaxation(i) : 0);
+        }
+
+        final int[][] offsets = { { 0, -1, 0 }, { 0, 1, 0 }, { 0, 0, -1 }, { 0, 0, 1 }, { -1, 0, 0 }, { 1, 0, 0 } };
+
+        for (int i = 0; i < size; i++) {
+            if (!snapshot.isActive(i)) {
+                continue;
+            }
+
+            final long pos = snapshot.getPosition(i);
+
+            for (final int[] offset : offsets) {
+                final Integer j = indices.get(ThermalStorage.pack(ThermalStorage.getX(pos) + offset[0], ThermalStorage.getY(pos) + offset[1], ThermalStorage.getZ(pos) + offset[2]));
+
+                if (j != null && previous[i] > previous[j]) {
+                    final double flow = (previous[i] - previous[j]) * snapshot.getConductivity(j);
+
+                    heat[i] -= flow;
+                    heat[j] += flow;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            result[i] = previous[i] + heat[i] / snapshot.getHeatCapacity(i);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void matchesHandComputedCell() {
+        final ThermalSnapshot snapshot = createSnapshot();
+        final double[] result = new ExplicitThermalSolver().solve(snapshot);
+
+        // The cell at 1 64 0 starts at 500 - 5 = 495 K. It receives from 0 64 0 (980 K) and 1 65 0 (1160 K) at its own
+        // conductivity, and gives to its three ambient neighbours at theirs. The inactive cell at 2 64 0 spreads nothing.
+        final double expected = 495 + ((980 - 495) * 0.05 + (1160 - 495) * 0.05 - 3 * (495 - 300) * NEIGHBOR_CONDUCTIVITY) / 2.0;
+
+        assertEquals(expected, result[snapshot.indexOf(ThermalStorage.pack(1, 64, 0))], EPSILON);
+    }
+
+    @Test
+    public void matchesJacobiReference() {
+        final ThermalSnapshot snapshot = createSnapshot();
+        final double[] expected = solveReference(snapshot);
+        final double[] result = new ExplicitThermalSolver().solve(snapshot);
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(expected[i], result[i], EPSILON);
+        }
+    }
+
+    /**
+     * Only a coarse sanity check, the two updates are not meant to agree exactly.
+     */
+    @Test
+    public void staysCloseToSequentialStep() {
+        final RandomThermalWorld world = new RandomThermalWorld(0, 8);
+        final ThermalSimulation sequential = world.createSimulation();
+        final ThermalSimulation explicit = world.createSimulation();
+        final IThermalSolver solver = new ExplicitThermalSolver();
+
+        for (int i = 0; i < STEPS; i++) {
+            sequential.stepSequential();
+            explicit.step(solver, 1);
+        }
+
+        final Set<Long> positions = new HashSet<>();
+
+        for (final long pos : sequential.getStorage().getPositions()) {
+            positions.add(pos);
+        }
+
+        for (final long pos : explicit.getStorage().getPositions()) {
+            positions.add(pos);
+        }
+
+        for (final long pos : positions) {
+            assertEquals(sequential.getTemperature(pos), explicit.getTemperature(pos), SEQUENTIAL_TOLERANCE);
+        }
+    }
+}
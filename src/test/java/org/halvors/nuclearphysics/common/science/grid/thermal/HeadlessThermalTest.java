@@ -0,0 +1,60 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * The thermal simulation must run without Minecraft, so it can be tested and benchmarked on its own.
+ */
+public class HeadlessThermalTest {
+    private static final String PACKAGE = ThermalSimulation.class.getPackage().getName();
+
+    private static File[] getClassFiles(final File root) {
+        final File directory = new File(root, PACKAGE.replace('.', File.separatorChar));
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(".class"));
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+
+        return files;
+    }
+
+    @Test
+    public void referencesNoMinecraftTypes() throws Exception {
+        final File root = new File(ThermalSimulation.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        for (final File file : getClassFiles(root)) {
+            // Every type a class refers to is named in its constant pool.
+            final String classFile = new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+
+            assertFalse(file.getName(), classFile.contains("net/minecraft"));
+            assertFalse(file.getName(), classFile.contains("org/halvors/nuclearphysics/api/"));
+        }
+    }
+
+    @Test
+    public void loadsWithoutMinecraft() throws Exception {
+        final URL location = ThermalSimulation.class.getProtectionDomain().getCodeSource().getLocation();
+        final File root = new File(location.toURI());
+
+        // Only sees the classes of the mod itself and the JDK, none of the libraries on the test classpath.
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] { location }, null)) {
+            for (final File file : getClassFiles(root)) {
+                final String name = file.getName();
+
+                Class.forName(PACKAGE + "." + name.substring(0, name.length() - ".class".length()), true, loader);
+            }
+
+            final Class<?> storage = Class.forName(PACKAGE + ".ThermalStorage", true, loader);
+            storage.getMethod("set", long.class, double.class).invoke(storage.getConstructor().newInstance(), 0L, 1000D);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImplicitThermalSolverTest {
+    private static final int TIME_STEP = 10;
+    private static final int RADIUS = 3;
+    private static final double PLASMA_TEMPERATURE = 1000000;
+    private static final double COLD_TEMPERATURE = 300;
+
+    // Far beyond what the explicit solver stays stable at, where a cell gives away more heat than it has.
+    private static final double CONDUCTIVITY = 1D / 7;
+
+    /**
+     * @return a cube of cold cells holding a temperature, with a plasma hot cell in the middle.
+     */
+    private static ThermalSnapshot createSnapshot() {
+        final long[] positions = new long[(2 * RADIUS + 1) * (2 * RADIUS + 1) * (2 * RADIUS + 1)];
+        int count = 0;
+
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int y = -RADIUS; y <= RADIUS; y++) {
+                for (int z = -RADIUS; z <= RADIUS; z++) {
+                    positions[count++] = ThermalStorage.pack(x, 64 + y, z);
+                }
+            }
+        }
+
+        Arrays.sort(positions);
+
+        final ThermalSnapshot snapshot = new ThermalSnapshot(positions);
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            final boolean active = Arrays.binarySearch(positions, snapshot.getPosition(i)) >= 0;
+            final double temperature = snapshot.getPosition(i) == ThermalStorage.pack(0, 64, 0) ? PLASMA_TEMPERATURE : COLD_TEMPERATURE;
+
+            snapshot.setCell(i, temperature, COLD_TEMPERATURE, CONDUCTIVITY, 1, 0, active);
+        }
+
+        return snapshot;
+    }
+
+    private static double getEnergy(final ThermalSnapshot snapshot, final double[] temperatures) {
+        double energy = 0;
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            energy += snapshot.getHeatCapacity(i) * temperatures[i];
+        }
+
+        return energy;
+    }
+
+    @Test
+    public void staysWithinBounds() {
+        final ThermalSnapshot snapshot = createSnapshot();
+        final double[] result = new ImplicitThermalSolver(TIME_STEP).solve(snapshot);
+
+        for (final double temperature : result) {
+            assertTrue(temperature >= COLD_TEMPERATURE && temperature <= PLASMA_TEMPERATURE);
+        }
+    }
+
+    @Test
+    public void fallsOffWithDistance() {
+        final ThermalSnapshot snapshot = createSnapshot();
+        final double[] result = new ImplicitThermalSolver(TIME_STEP).solve(snapshot);
+
+        // Walking away from the hot cell on every side, no cell is hotter than the one before it.
+        for (int side = 0; side < ThermalSnapshot.SIDES; side++) {
+            int index = snapshot.indexOf(ThermalStorage.pack(0, 64, 0));
+            int next = snapshot.getNeighbor(index, side);
+
+            while (next >= 0) {
+                assertTrue(result[next] <= result[index]);
+
+                index = next;
+                next = snapshot.getNeighbor(index, side);
+            }
+        }
+    }
+
+    @Test
+    public void conservesEnergy() {
+        final ThermalSnapshot snapshot = createSnapshot();
+        final double[] previous = new double[snapshot.size()];
+
+        // There is no heat loss, so the energy only moves between cells.
+        for (int i = 0; i < snapshot.size(); i++) {
+            previous[i] = snapshot.getTemperature(i);
+        }
+
+        final double[] result = new ImplicitThermalSolver(TIME_STEP).solve(snapshot);
+
+        // Iterating stops once no cell changes more than TOLERANCE, so each cell may still be off by that much times
+        // its heat capacity plus the conductances of its faces.
+        final double tolerance = ImplicitThermalSolver.TOLERANCE * snapshot.size() * (1 + ThermalSnapshot.SIDES * CONDUCTIVITY * TIME_STEP);
+
+        assertEquals(getEnergy(snapshot, previous), getEnergy(snapshot, result), tolerance);
+    }
+}
@@ -0,0 +1,30 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelThermalSolverTest {
+    // Sections with this many cells are solved by the dense kernel, the cube fills one section.
+    private static final int MIN_DENSE_CELLS = 1024;
+
+    @Test
+    public void matchesExplicitSolver() {
+        final ThermalSnapshot snapshot = new RandomThermalWorld(0, 16).createSimulation().capture(1);
+        final boolean[] dense = new boolean[snapshot.size()];
+
+        // Large enough to be split over several threads, with both dense and sparse sections.
+        assertTrue(snapshot.size() > 4 * 1024);
+        assertTrue(DenseThermalKernel.getDenseSections(snapshot, MIN_DENSE_CELLS, dense).length > 0);
+
+        final ParallelThermalSolver solver = new ParallelThermalSolver(4, MIN_DENSE_CELLS);
+
+        try {
+            assertArrayEquals(new ExplicitThermalSolver(MIN_DENSE_CELLS).solve(snapshot), solver.solve(snapshot), 0);
+            assertArrayEquals(new ExplicitThermalSolver().solve(snapshot), solver.solve(snapshot), 0);
+        } finally {
+            solver.shutdown();
+        }
+    }
+}
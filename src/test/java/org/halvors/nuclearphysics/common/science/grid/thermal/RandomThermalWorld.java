@@ -0,0 +1,91 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * A cube of blocks with random temperatures and block properties, generated from a fixed seed so every run of a test
+ * sees the exact same world. Blocks outside of the cube conduct heat like water and never lose any. Every block is the
+ * same distance away from the players, which the test decides.
+ */
+class RandomThermalWorld implements IThermalWorld {
+    static final double AMBIENT_TEMPERATURE = 295;
+
+    private final Map<Long, double[]> properties = new HashMap<>();
+    private final Map<Long, Double> temperatures = new HashMap<>();
+
+    private double observerDistance;
+
+    /**
+     * @param size - the length of a side of the cube.
+     */
+    RandomThermalWorld(final long seed, final int size) {
+        final Random random = new Random(seed);
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    final long pos = ThermalStorage.pack(x, 64 + y, z);
+
+                    properties.put(pos, new double[] { 0.1 + random.nextDouble(), 0.5 + random.nextDouble(), random.nextDouble() * 5 });
+                    temperatures.put(pos, AMBIENT_TEMPERATURE + random.nextDouble() * 2000);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a simulation of the world with every block of the cube awake, blocks never fall asleep.
+     */
+    ThermalSimulation createSimulation() {
+        final ThermalStorage storage = new ThermalStorage();
+
+        for (final Map.Entry<Long, Double> entry : temperatures.entrySet()) {
+            storage.set(entry.getKey(), entry.getValue());
+            storage.wake(entry.getKey());
+        }
+
+        return new ThermalSimulation(this, storage, 0, Integer.MAX_VALUE);
+    }
+
+    void setObserverDistance(final double observerDistance) {
+        this.observerDistance = observerDistance;
+    }
+
+    @Override
+    public boolean isLoaded(final long pos) {
+        return true;
+    }
+
+    @Override
+    public double getAmbientTemperature(final long pos) {
+        return AMBIENT_TEMPERATURE;
+    }
+
+    @Override
+    public double getConductivity(final long pos) {
+        final double[] values = properties.get(pos);
+
+        return values != null ? values[0] : 0.5;
+    }
+
+    @Override
+    public double getHeatCapacity(final long pos) {
+        final double[] values = properties.get(pos);
+
+        return values != null ? values[1] : 1;
+    }
+
+    @Override
+    public double getHeatLoss(final long pos, final double temperature, final double ambientTemperature, final double deltaTime) {
+        final double[] values = properties.get(pos);
+
+        return values != null ? values[2] : 0;
+    }
+
+    @Override
+    public double getObserverDistance(final long pos) {
+        return observerDistance;
+    }
+}
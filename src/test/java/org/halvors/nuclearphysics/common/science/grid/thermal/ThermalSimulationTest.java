@@ -0,0 +1,104 @@
+package org.halvors.nuclearphysics.common.science.grid.thermal;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThermalSimulationTest {
+    private static final int LOD_RADIUS = 64;
+    private static final int LOD_FACTOR = 2;
+
+    /**
+     * @return the heat stored above ambient temperature, the heat capacity times the temperature offset of every cell.
+     */
+    private static double getEnergy(final RandomThermalWorld world, final ThermalStorage storage) {
+        double energy = 0;
+
+        for (final long pos : storage.getPositions()) {
+            energy += world.getHeatCapacity(pos) * (storage.get(pos) - world.getAmbientTemperature(pos));
+        }
+
+        return energy;
+    }
+
+    @Test
+    public void coarseningConservesEnergy() {
+        // The cube fills exactly one section, with a different heat capacity for every block.
+        final RandomThermalWorld world = new RandomThermalWorld(0, ThermalSection.SIZE);
+        final ThermalSimulation simulation = world.createSimulation();
+        final ThermalStorage storage = simulation.getStorage();
+        final double energy = getEnergy(world, storage);
+
+        world.setObserverDistance(LOD_RADIUS * 2);
+        simulation.updateLevelOfDetail(LOD_RADIUS, LOD_FACTOR);
+        assertEquals(1, storage.getCoarseSectionCount());
+        assertEquals(0, storage.size());
+
+        world.setObserverDistance(0);
+        simulation.updateLevelOfDetail(LOD_RADIUS, LOD_FACTOR);
+        assertEquals(0, storage.getCoarseSectionCount());
+
+        assertEquals(energy, getEnergy(world, storage), Math.abs(energy) * 1.0E-12);
+    }
+
+    @Test
+    public void waitsForSnapshotBeforeCoarsening() {
+        final RandomThermalWorld world = new RandomThermalWorld(0, ThermalSection.SIZE);
+        final ThermalSimulation simulation = world.createSimulation();
+        final ThermalStorage storage = simulation.getStorage();
+        final ThermalSnapshot snapshot = simulation.capture(1);
+        final long sectionKey = ThermalStorage.getSectionKey(ThermalStorage.pack(0, 64, 0));
+
+        // The snapshot is being solved, its cells already lost their heat for this step.
+        storage.setSnapshot(snapshot);
+        world.setObserverDistance(LOD_RADIUS * 2);
+        simulation.updateLevelOfDetail(LOD_RADIUS, LOD_FACTOR);
+        assertNull(storage.getCoarseSection(sectionKey));
+
+        snapshot.setResult(new ExplicitThermalSolver().solve(snapshot));
+        simulation.commit(snapshot);
+        storage.setSnapshot(null);
+
+        simulation.updateLevelOfDetail(LOD_RADIUS, LOD_FACTOR);
+        assertNotNull(storage.getCoarseSection(sectionKey));
+    }
+
+    @Test
+    public void slicesStepEveryCellOnce() {
+        final RandomThermalWorld world = new RandomThermalWorld(0, ThermalSection.SIZE);
+        final ThermalSimulation simulation = world.createSimulation();
+        final ThermalStorage storage = simulation.getStorage();
+        final long[] awake = storage.getAwakePositions();
+        final Map<Long, Integer> stepped = new HashMap<>();
+        int slices = 0;
+
+        // Enough time for about a thousand cells at the estimated time per cell, a quarter of the awake cells.
+        final long budget = 10000000;
+
+        do {
+            final long[] slice = simulation.nextSlice(budget);
+            assertTrue(slice.length < awake.length);
+
+            for (final long pos : slice) {
+                stepped.merge(pos, 1, Integer::sum);
+            }
+
+            simulation.stepSequential(slice);
+            slices++;
+        } while (storage.getStatistics().getCarriedOver() > 0);
+
+        assertTrue(slices > 1);
+        assertEquals(0, storage.getStatistics().getCarriedOver());
+        assertEquals(awake.length, stepped.size());
+
+        for (final long pos : awake) {
+            assertEquals(1, (int) stepped.get(pos));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.halvors.nuclearphysics.common.tile;
+
+import net.minecraft.nbt.NBTTagCompound;
+import org.halvors.nuclearphysics.common.ConfigurationManager.Offline;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class OfflineTimerTest {
+    private static OfflineTimer loadSavedAt(final long savedTime) {
+        final NBTTagCompound tag = new NBTTagCompound();
+        tag.setLong("savedTime", savedTime);
+
+        final OfflineTimer timer = new OfflineTimer();
+        timer.readFromNBT(tag);
+
+        return timer;
+    }
+
+    @Before
+    public void setUp() {
+        Offline.maxCatchUpTicks = 72000;
+    }
+
+    @Test
+    public void missesTicksWhileUnloaded() {
+        assertEquals(900, loadSavedAt(100).getMissedTicks(1000));
+    }
+
+    @Test
+    public void missesNoTicksWhenRebuiltWhileLoaded() {
+        final OfflineTimer timer = loadSavedAt(100);
+        timer.getMissedTicks(1000);
+
+        // The cluster of the cell is rebuilt, while its chunk stayed loaded.
+        assertEquals(0, timer.getMissedTicks(1200));
+    }
+
+    @Test
+    public void missesNoTicksWhenPlaced() {
+        assertEquals(0, new OfflineTimer().getMissedTicks(1000));
+    }
+
+    @Test
+    public void missesNoTicksFromUpdateTag() {
+        final NBTTagCompound tag = new NBTTagCompound();
+        tag.setLong("savedTime", 100);
+        OfflineTimer.removeFromNBT(tag);
+
+        final OfflineTimer timer = new OfflineTimer();
+        timer.readFromNBT(tag);
+
+        assertEquals(0, timer.getMissedTicks(1000));
+    }
+
+    @Test
+    public void catchUpIsLimited() {
+        assertEquals(72000, loadSavedAt(0).getMissedTicks(1000000));
+    }
+}